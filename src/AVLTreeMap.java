@@ -6,10 +6,6 @@ import java.util.Comparator;
 
 public class AVLTreeMap<K, V> extends TreeMap<K, V> {
 
-
-    protected BalanceableBinaryTree<K, V> tree = new BalanceableBinaryTree<>();
-
-
 	/** Constructs an empty map using the natural ordering of keys. */
 	public AVLTreeMap() {
 		super();
@@ -61,7 +57,7 @@ public class AVLTreeMap<K, V> extends TreeMap<K, V> {
 		do {
 			oldHeight = height(p);
 			if (!isBalanced(p)) {
-				p = tree.restructure(tallerChild(tallerChild(p)));
+				p = restructure(tallerChild(tallerChild(p)));
 				recomputeHeight(left(p));
 				recomputeHeight(right(p));
 			}
@@ -122,6 +118,23 @@ public class AVLTreeMap<K, V> extends TreeMap<K, V> {
 		avl.remove(arr[0]);
 
 		System.out.println("avl: " + avl);
+
+		// ascending inserts, the worst case for an unbalanced search tree
+		int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+		for (int round = 0; round < 3; ++round) {
+			AVLTreeMap<Integer, Integer> tree = new AVLTreeMap<>();
+			long start = System.nanoTime();
+			for (int i = 0; i < n; ++i) tree.put(i, i);
+			long avlTime = System.nanoTime() - start;
+
+			java.util.TreeMap<Integer, Integer> jdk = new java.util.TreeMap<>();
+			start = System.nanoTime();
+			for (int i = 0; i < n; ++i) jdk.put(i, i);
+			long jdkTime = System.nanoTime() - start;
+
+			System.out.printf("%d ascending puts: AVLTreeMap %.1f ns/op (height %d), java.util.TreeMap %.1f ns/op%n", n,
+					(double) avlTime / n, tree.height(tree.root()), (double) jdkTime / n);
+		}
 	}
 }
 
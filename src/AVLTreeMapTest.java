@@ -126,7 +126,14 @@ class AVLTreeMapTest {
 
 	@Test
 	void testEntrySet() {
-		fail("Not yet implemented");
+		AVLTreeMap<Integer, String> map = new AVLTreeMap<>();
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+
+		assertEquals("[<1, 1>, <2, 2>, <4, 4>, <5, 5>, <12, 12>, <15, 15>, <21, 21>, <23, 23>, <24, 24>, <26, 26>, <33, 33>, <35, 35>]", map.entrySet().toString());
 	}
 
 	@Test
@@ -155,4 +162,65 @@ class AVLTreeMapTest {
 		assertEquals("[<12, 12>, <15, 15>, <21, 21>, <23, 23>, <24, 24>, <26, 26>, <33, 33>]", map.subMap(12, 34).toString());
 	}
 
+	@Test
+	void testAscendingInsertStaysBalanced() {
+		AVLTreeMap<Integer, Integer> map = new AVLTreeMap<>();
+		int n = 100000;
+		for(int i = 0; i < n; ++i) {
+			map.put(i, i);
+		}
+		// an AVL tree with n entries has height below 1.45 log2(n + 2)
+		int bound = (int) (1.45 * Math.log(n + 2) / Math.log(2));
+		assertTrue(map.height(map.root()) <= bound);
+		for(int i = 0; i < n; i += 2) {
+			map.remove(i);
+		}
+		assertTrue(map.height(map.root()) <= bound);
+		assertEquals(n / 2, map.size());
+		assertEquals(1, map.firstEntry().getKey());
+	}
+
+	@Test
+	void testSelectAndRank() {
+		AVLTreeMap<Integer, String> map = new AVLTreeMap<>();
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+
+		assertEquals(1, map.select(0).getKey());
+		assertEquals(12, map.select(4).getKey());
+		assertEquals(35, map.select(11).getKey());
+		assertEquals(null, map.select(12));
+		assertEquals(0, map.rank(1));
+		assertEquals(4, map.rank(12));
+		assertEquals(5, map.rank(13));
+		assertEquals(12, map.rank(100));
+		assertEquals(7, map.countInRange(12, 34));
+		assertEquals(0, map.countInRange(34, 12));
+
+		map.remove(12);
+		map.remove(1);
+		assertEquals(15, map.select(3).getKey());
+		assertEquals(3, map.rank(13));
+	}
+
+	@Test
+	void testSelectAfterManyUpdates() {
+		AVLTreeMap<Integer, Integer> map = new AVLTreeMap<>();
+		int n = 10000;
+		for(int i = 0; i < n; ++i) {
+			map.put((i * 7919) % n, i);
+		}
+		for(int i = 0; i < n; i += 2) {
+			map.remove(i);
+		}
+		for(int k = 0; k < n / 2; ++k) {
+			assertEquals(2 * k + 1, map.select(k).getKey());
+			assertEquals(k, map.rank(2 * k + 1));
+		}
+		assertEquals(250, map.countInRange(1000, 1500));
+	}
+
 }
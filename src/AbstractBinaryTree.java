@@ -1,5 +1,7 @@
-import java.util.List;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * An abstract base class providing some functionality of the BinaryTree interface.
@@ -61,31 +63,186 @@ public abstract class AbstractBinaryTree<E> extends AbstractTree<E>
         return snapshot;
     }
 
+    //---------- stackless traversals, following parent links ----------
+
+    /**
+     * Returns the first position of the subtree rooted at p in postorder: the
+     * deepest position reached by going left whenever possible, else right.
+     */
+    private Position<E> postorderFirst(Position<E> p) {
+        while (true) {
+            if (left(p) != null) p = left(p);
+            else if (right(p) != null) p = right(p);
+            else return p;
+        }
+    }
+
+    /**
+     * Returns the position following q in a preorder traversal of the subtree
+     * rooted at p (or null if q is the last one). Uses the parent links in place
+     * of a stack, so the traversal needs no auxiliary space.
+     */
+    private Position<E> preorderNext(Position<E> q, Position<E> p) {
+        if (left(q) != null) return left(q);
+        if (right(q) != null) return right(q);
+        while (q != p) {                    // climb until an unvisited right subtree
+            Position<E> parent = parent(q);
+            if (q == left(parent) && right(parent) != null) return right(parent);
+            q = parent;
+        }
+        return null;
+    }
+
     /**
-     * Adds positions of the subtree rooted at Position p to the given
-     * snapshot using an inorder traversal
+     * Returns the position following q in a postorder traversal of the subtree
+     * rooted at p (or null if q is p, the last one).
+     */
+    private Position<E> postorderNext(Position<E> q, Position<E> p) {
+        if (q == p) return null;
+        Position<E> parent = parent(q);
+        if (q == left(parent) && right(parent) != null) return postorderFirst(right(parent));
+        return parent;
+    }
+
+    /**
+     * Returns the position following q in an inorder traversal (or null if q is
+     * the last one).
+     */
+    private Position<E> inorderNext(Position<E> q) {
+        if (right(q) != null) {
+            q = right(q);
+            while (left(q) != null) q = left(q);
+            return q;
+        }
+        Position<E> parent = parent(q);
+        while (parent != null && q == right(parent)) {  // climb out of right subtrees
+            q = parent;
+            parent = parent(q);
+        }
+        return parent;
+    }
+
+    /**
+     * Returns the height of the subtree rooted at Position p, walking it by
+     * parent links rather than by recursion.
      *
-     * @param p        Position serving as the root of a subtree
-     * @param snapshot a list to which results are appended
+     * @param p A valid Position within the tree
+     * @throws IllegalArgumentException if p is not a valid Position for this tree.
      */
-    private void inorderSubtree(Position<E> p, List<Position<E>> snapshot) {
-        if (left(p) != null)
-            inorderSubtree(left(p), snapshot);
-        snapshot.add(p);
-        if (right(p) != null)
-            inorderSubtree(right(p), snapshot);
+    @Override
+    public int height(Position<E> p) throws IllegalArgumentException {
+        int h = 0, d = 0;                   // d is the depth of q below p
+        Position<E> q = p;
+        while (true) {
+            if (left(q) != null) {
+                q = left(q);
+                d++;
+            } else if (right(q) != null) {
+                q = right(q);
+                d++;
+            } else {
+                h = Math.max(h, d);           // q is a leaf
+                while (true) {                // climb to the next unvisited right subtree
+                    if (q == p) return h;
+                    Position<E> parent = parent(q);
+                    d--;
+                    if (q == left(parent) && right(parent) != null) {
+                        q = right(parent);
+                        d++;
+                        break;
+                    }
+                    q = parent;
+                }
+            }
+        }
+    }
+
+    //---------------- nested StepIterator class ----------------
+    /*
+     * Reports positions one at a time, computing each from the one before by
+     * following child and parent links, so it needs only O(1) space.
+     */
+    private abstract class StepIterator implements Iterator<Position<E>> {
+        private Position<E> next;           // position to report next (null if done)
+
+        StepIterator(Position<E> first) {
+            next = first;
+        }
+
+        /** Returns the position following q in this traversal (or null). */
+        protected abstract Position<E> step(Position<E> q);
+
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        public Position<E> next() {
+            if (next == null) throw new NoSuchElementException("No further positions");
+            Position<E> p = next;
+            next = step(p);
+            return p;
+        }
+    } //----------- end of nested StepIterator class -----------
+
+    /**
+     * Returns an iterable collection of positions of the tree, reported in preorder.
+     * Positions are produced on demand, in constant extra space.
+     *
+     * @return iterable collection of the tree's positions in preorder
+     */
+    @Override
+    public Iterable<Position<E>> preorder() {
+        return new Traversal() {
+            public Iterator<Position<E>> iterator() {
+                Position<E> root = root();
+                return new StepIterator(root) {
+                    protected Position<E> step(Position<E> q) {
+                        return preorderNext(q, root);
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns an iterable collection of positions of the tree, reported in postorder.
+     * Positions are produced on demand, in constant extra space.
+     *
+     * @return iterable collection of the tree's positions in postorder
+     */
+    @Override
+    public Iterable<Position<E>> postorder() {
+        return new Traversal() {
+            public Iterator<Position<E>> iterator() {
+                Position<E> root = root();
+                return new StepIterator(root == null ? null : postorderFirst(root)) {
+                    protected Position<E> step(Position<E> q) {
+                        return postorderNext(q, root);
+                    }
+                };
+            }
+        };
     }
 
     /**
      * Returns an iterable collection of positions of the tree, reported in inorder.
+     * Positions are produced on demand, in constant extra space.
      *
      * @return iterable collection of the tree's positions reported in inorder
      */
     public Iterable<Position<E>> inorder() {
-        List<Position<E>> snapshot = new ArrayList<>();
-        if (!isEmpty())
-            inorderSubtree(root(), snapshot);   // fill the snapshot recursively
-        return snapshot;
+        return new Traversal() {
+            public Iterator<Position<E>> iterator() {
+                Position<E> q = root();
+                if (q != null)
+                    while (left(q) != null) q = left(q);
+                return new StepIterator(q) {
+                    protected Position<E> step(Position<E> q) {
+                        return inorderNext(q);
+                    }
+                };
+            }
+        };
     }
 
     /**
@@ -7,19 +7,26 @@ import java.util.Random;
  * <p>
  * The base class provides the following means of support:
  * 1) Support for calculating hash values with MAD compression
- * 2) Support for resizing table when load factor reaches 1/2
+ * 2) Support for resizing table when load factor reaches 1/2, either
+ * all at once or incrementally (see setIncrementalRehash)
  * <p>
  * Subclass is responsible for providing abstract methods:
  * createTable(), bucketGet(h,k), bucketPut(h,k,v),
- * bucketRemove(h,k), and entrySet()
+ * bucketRemove(h,k), entrySet(), and the incremental rehash
+ * hooks retireTable(), drainBucket(j) and releaseRetiredTable(),
  * and for accurately maintaining the protected member, n,
  * to reflect changes within bucketPut and bucketRemove.
  */
 public abstract class AbstractHashMap<K, V> extends AbstractMap<K, V> {
     protected int size = 0;                 // number of entries in the dictionary
     protected int capacity;              // length of the table
+    protected int modCount = 0;          // structural modifications, for fail-fast iterators
     private int prime;                   // prime factor
     private long scale, shift;           // the shift and scaling factors
+    private int rehashStep = 0;          // buckets migrated per operation (0 = resize all at once)
+    private int oldCapacity;             // length of the retired table while rehashing
+    private int rehashIndex = -1;        // next retired bucket to migrate (-1 if not rehashing)
+    private long migrated = 0;           // retired buckets migrated so far, for instrumentation
 
     /**
      * Creates a hash table with the given capacity and prime factor.
@@ -67,6 +74,7 @@ public abstract class AbstractHashMap<K, V> extends AbstractMap<K, V> {
      */
     @Override
     public V get(K key) {
+        rehashFor(key);
         return bucketGet(hashValue(key), key);
     }
 
@@ -79,7 +87,11 @@ public abstract class AbstractHashMap<K, V> extends AbstractMap<K, V> {
      */
     @Override
     public V remove(K key) {
-        return bucketRemove(hashValue(key), key);
+        rehashFor(key);
+        int before = size;
+        V answer = bucketRemove(hashValue(key), key);
+        if (size != before) modCount++;
+        return answer;
     }
 
     /**
@@ -94,12 +106,45 @@ public abstract class AbstractHashMap<K, V> extends AbstractMap<K, V> {
      */
     @Override
     public V put(K key, V value) {
+        rehashFor(key);
+        int before = size;
         V answer = bucketPut(hashValue(key), key, value);
+        if (size != before) modCount++;
         if (size > capacity / 2)              // keep load factor <= 0.5
             resize(2 * capacity - 1);        // (or find a nearby prime)
+        else if (!isRehashing() && occupancy() > capacity / 2)  // removed-entry markers:
+            resize(size > capacity / 4 ? 2 * capacity - 1 : capacity);  // rebuild to clear them
         return answer;
     }
 
+    /**
+     * Switches between resizing the whole table inside a single put (the default)
+     * and incremental rehashing. In incremental mode a resize only allocates the
+     * new table; the old one stays alive and every later get, put or remove moves
+     * the bucket holding its own key plus at least the given number of further
+     * buckets. The step grows with the load so the retired table is always
+     * drained before the next resize comes due; a resize therefore never has to
+     * finish a previous rehash, and no single operation pays more than a bounded
+     * amount of rehash work.
+     *
+     * @param bucketsPerOperation buckets to migrate per operation, or 0 to resize all at once
+     * @throws IllegalArgumentException if bucketsPerOperation is negative
+     */
+    public void setIncrementalRehash(int bucketsPerOperation) {
+        if (bucketsPerOperation < 0) throw new IllegalArgumentException("Negative rehash step");
+        finishRehash();
+        rehashStep = bucketsPerOperation;
+    }
+
+    /**
+     * Tests whether an incremental rehash is currently in progress.
+     *
+     * @return true if a retired table is still being drained
+     */
+    public boolean isRehashing() {
+        return rehashIndex >= 0;
+    }
+
     // private utilities
 
     /**
@@ -110,13 +155,27 @@ public abstract class AbstractHashMap<K, V> extends AbstractMap<K, V> {
      * and a and b are integers chosen at random from the interval [0, p-1], with a > 0.
      */
     private int hashValue(K key) {
-        return (int) ((Math.abs(key.hashCode() * scale + shift) % prime) % capacity);
+        return hashValue(key, capacity);
+    }
+
+    private int hashValue(K key, int cap) {
+        return (int) ((Math.abs(key.hashCode() * scale + shift) % prime) % cap);
     }
 
     /**
      * Updates the size of the hash table and rehashes all entries.
      */
     private void resize(int newCap) {
+        modCount++;
+        if (rehashStep > 0) {
+            finishRehash();                  // no-op: rehashFor drained the retired table in time
+            oldCapacity = capacity;
+            retireTable();
+            capacity = newCap;
+            createTable();
+            rehashIndex = 0;
+            return;
+        }
         ArrayList<Entry<K,V>> original = new ArrayList<>(size);
         for (Entry<K,V> e : entrySet())
             original.add(e);
@@ -127,6 +186,68 @@ public abstract class AbstractHashMap<K, V> extends AbstractMap<K, V> {
             put(e.getKey(), e.getValue());
     }
 
+    /**
+     * Performs the rehash work owed by an operation on the given key: first the
+     * retired bucket the key would live in, so the key is now only to be found in
+     * the new table, then further buckets in index order: rehashStep of them, or
+     * more if needed to spread the rest over the puts left before the next resize.
+     */
+    private void rehashFor(K key) {
+        if (rehashIndex < 0) return;
+        modCount++;
+        migrate(hashValue(key, oldCapacity));
+        int headroom = Math.max(capacity / 2 - size, 0) + 1;   // puts until the next resize
+        int remaining = oldCapacity - rehashIndex;
+        int step = Math.max(rehashStep, (remaining + headroom - 1) / headroom);
+        for (int i = 0; i < step && rehashIndex < oldCapacity; ++i)
+            migrate(rehashIndex++);
+        if (rehashIndex >= oldCapacity) {
+            releaseRetiredTable();
+            rehashIndex = -1;
+        }
+    }
+
+    /**
+     * Moves the entries of retired bucket j into the new table.
+     */
+    private void migrate(int j) {
+        migrated++;
+        for (Entry<K,V> e : drainBucket(j)) {
+            size--;                          // bucketPut counts it again
+            bucketPut(hashValue(e.getKey()), e.getKey(), e.getValue());
+        }
+    }
+
+    /**
+     * Migrates every remaining retired bucket, ending any rehash in progress.
+     * Subclasses call this before walking their table directly.
+     */
+    protected void finishRehash() {
+        if (rehashIndex < 0) return;
+        modCount++;
+        while (rehashIndex < oldCapacity)
+            migrate(rehashIndex++);
+        releaseRetiredTable();
+        rehashIndex = -1;
+    }
+
+    /**
+     * Returns the number of retired buckets migrated since the map was created,
+     * so callers can measure the rehash work done by an individual operation.
+     */
+    protected long bucketsMigrated() {
+        return migrated;
+    }
+
+    /**
+     * Returns the number of slots of the current table that a failed search
+     * must probe past: the entries, plus any markers left by removals. Tables
+     * that leave no such markers need not override this.
+     */
+    protected int occupancy() {
+        return size;
+    }
+
     // protected abstract methods to be implemented by subclasses
 
     /**
@@ -134,6 +255,28 @@ public abstract class AbstractHashMap<K, V> extends AbstractMap<K, V> {
      */
     protected abstract void createTable();
 
+    /**
+     * Sets the current table aside as the retired table, which stays readable
+     * through drainBucket until releaseRetiredTable is called. createTable() is
+     * called right afterwards to allocate the new table.
+     */
+    protected abstract void retireTable();
+
+    /**
+     * Removes from the retired table, and returns, the entries of bucket j
+     * together with any other entries that a lookup starting at bucket j
+     * could reach. Does not change size.
+     *
+     * @param j index of a bucket of the retired table
+     * @return the entries removed from the retired table
+     */
+    protected abstract Iterable<Entry<K, V>> drainBucket(int j);
+
+    /**
+     * Discards the retired table once every bucket has been drained.
+     */
+    protected abstract void releaseRetiredTable();
+
     /**
      * Returns value associated with key k in bucket with hash value h.
      * If no such entry exists, returns null.
@@ -78,8 +78,8 @@ public abstract class AbstractMap<K, V> implements Map<K, V> {
 		} // return key!
 
 		public void remove() {
-			throw new UnsupportedOperationException("remove not supported");
-		}
+			entries.remove();
+		} // removes the underlying entry, if the entry iterator supports it
 	} // ----------- end of nested KeyIterator class -----------
 
 	// ---------------- nested KeyIterable class ----------------
@@ -122,8 +122,8 @@ public abstract class AbstractMap<K, V> implements Map<K, V> {
 		} // return value!
 
 		public void remove() {
-			throw new UnsupportedOperationException("remove not supported");
-		}
+			entries.remove();
+		} // removes the underlying entry, if the entry iterator supports it
 	} // ----------- end of nested ValueIterator class -----------
 
 	// ---------------- nested ValueIterable class ----------------
@@ -0,0 +1,167 @@
+import java.util.Random;
+
+/**
+ * An abstract base class supporting hash maps whose keys are primitive
+ * ints or longs, stored unboxed in flat arrays and located by linear probing.
+ * <p>
+ * The base class provides the following means of support:
+ * 1) Support for calculating hash values with MAD compression,
+ * the same way AbstractHashMap does for object keys
+ * 2) A slot state table and a probing search shared by all key types
+ * 3) Support for resizing table when load factor reaches 1/2, and for
+ * clearing removed-entry markers before they clog the probe sequences
+ * <p>
+ * Subclass is responsible for providing the key and value arrays,
+ * by overriding createTable() and keyEquals(j, key), for implementing
+ * resize(newCap), and for accurately maintaining the protected member,
+ * size, within its get/put/remove methods. Slots change state only
+ * through markUsed(j) and markDefunct(j), which keep count of the markers.
+ */
+public abstract class AbstractPrimitiveHashMap {
+    protected static final byte EMPTY = 0;    // slot was never used
+    protected static final byte USED = 1;     // slot holds a live entry
+    protected static final byte DEFUNCT = 2;  // slot held an entry that was removed
+
+    protected int size = 0;              // number of entries in the dictionary
+    protected int capacity;              // length of the table
+    protected int defunct = 0;           // number of DEFUNCT slots in the table
+    protected byte[] state;              // state of each slot of the table
+    private int prime;                   // prime factor
+    private long scale, shift;           // the shift and scaling factors
+
+    /**
+     * Creates a hash table with the given capacity and prime factor.
+     */
+    public AbstractPrimitiveHashMap(int cap, int p) {
+        prime = p;
+        capacity = cap;
+        Random rand = new Random();
+        scale = rand.nextInt(prime - 1) + 1;
+        shift = rand.nextInt(prime);
+        createTable();
+    }
+
+    /**
+     * Creates a hash table with given capacity and prime factor 109345121.
+     */
+    public AbstractPrimitiveHashMap(int cap) {
+        this(cap, 109345121);
+    }  // default prime
+
+    /**
+     * Creates a hash table with capacity 17 and prime factor 109345121.
+     */
+    public AbstractPrimitiveHashMap() {
+        this(17);
+    }                     // default capacity
+
+    // public methods
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return number of entries in the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Tests whether the map is empty.
+     *
+     * @return true if the map is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // protected utilities
+
+    /**
+     * Hash function applying MAD method to the key, folded to 32 bits the
+     * same way Long.hashCode does. An int key is sign-extended, so it folds
+     * to itself if non-negative and to its bitwise complement if negative.
+     */
+    protected int hashValue(long key) {
+        int hash = (int) (key ^ (key >>> 32));
+        return (int) ((Math.abs(hash * scale + shift) % prime) % capacity);
+    }
+
+    /**
+     * Returns index with key k, or -(a+1) such that k could be added at index a.
+     */
+    protected int findSlot(long key) {
+        int avail = -1;                  // no slot available (thus far)
+        int h = hashValue(key);
+        int j = h;                       // index while scanning table
+        do {
+            if (state[j] != USED) {
+                if (avail == -1) avail = j;      // this is the first available slot
+                if (state[j] == EMPTY) break;    // if empty, search fails immediately
+            } else if (keyEquals(j, key)) {
+                return j;                        // successful match
+            }
+            j = (j + 1) % capacity;              // keep looking (cyclically)
+        } while (j != h);                        // stop if we return to the start
+        return -(avail + 1);                     // search has failed
+    }
+
+    /**
+     * Grows the table if the load factor has exceeded 1/2, or rebuilds it if
+     * live entries and DEFUNCT markers together fill more than half of it,
+     * since a failed search probes past both. The rebuild also grows the table
+     * while live entries fill more than a quarter of it, so that it frees at
+     * least a quarter of the slots and stays amortized O(1) under churn.
+     * Called by put after adding an entry; a removal leaves size + defunct
+     * unchanged, so it never needs to rebuild.
+     */
+    protected void checkLoad() {
+        if (size > capacity / 2)              // keep load factor <= 0.5
+            resize(2 * capacity - 1);        // (or find a nearby prime)
+        else if (size + defunct > capacity / 2)  // clears every DEFUNCT slot
+            resize(size > capacity / 4 ? 2 * capacity - 1 : capacity);
+    }
+
+    /**
+     * Marks slot j, as returned by a failed findSlot, as holding a live entry.
+     */
+    protected void markUsed(int j) {
+        if (state[j] == DEFUNCT) defunct--;  // reusing a removed entry's slot
+        state[j] = USED;
+    }
+
+    /**
+     * Marks live slot j as holding a removed entry.
+     */
+    protected void markDefunct(int j) {
+        state[j] = DEFUNCT;
+        defunct++;
+    }
+
+    /**
+     * Creates an empty table having length equal to current capacity.
+     * Subclasses extend this to allocate their key and value arrays.
+     */
+    protected void createTable() {
+        state = new byte[capacity];
+        defunct = 0;
+    }
+
+    // protected abstract methods to be implemented by subclasses
+
+    /**
+     * Tests whether the live slot j holds the given key.
+     *
+     * @param j   index of a slot in state USED
+     * @param key the key of interest
+     * @return true if slot j holds key
+     */
+    protected abstract boolean keyEquals(int j, long key);
+
+    /**
+     * Updates the size of the hash table and rehashes all entries.
+     *
+     * @param newCap the new length of the table
+     */
+    protected abstract void resize(int newCap);
+}
@@ -76,6 +76,13 @@ public abstract class AbstractPriorityQueue<K, V> implements PriorityQueue<K, V>
         return comp.compare(a.getKey(), b.getKey());
     }
 
+    /**
+     * Method for comparing two keys
+     */
+    protected int compare(K a, K b) {
+        return comp.compare(a, b);
+    }
+
     /**
      * Determines whether a key is valid.
      */
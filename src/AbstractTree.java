@@ -1,6 +1,7 @@
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * An abstract base class providing some functionality of the Tree interface.
@@ -72,7 +73,7 @@ public abstract class AbstractTree<E> implements Tree<E> {
    * @return true if the tree is empty, false otherwise
    */
   @Override
-  public boolean isEmpty() { return size() == 0; }
+  public boolean isEmpty() { return root() == null; }
 
   //---------- support for computing depth of nodes and height of (sub)trees ----------
 
@@ -82,10 +83,12 @@ public abstract class AbstractTree<E> implements Tree<E> {
    * @throws IllegalArgumentException if p is not a valid Position for this tree.
    */
   public int depth(Position<E> p) throws IllegalArgumentException {
-    if (isRoot(p))
-      return 0;
-    else
-      return 1 + depth(parent(p));
+    int d = 0;
+    while (!isRoot(p)) {                // climb to the root in a loop, not by recursion
+      p = parent(p);
+      d++;
+    }
+    return d;
   }
 
   /** Returns the height of the tree.
@@ -108,8 +111,18 @@ public abstract class AbstractTree<E> implements Tree<E> {
    */
   public int height(Position<E> p) throws IllegalArgumentException {
     int h = 0;                          // base case if p is external
-    for (Position<E> c : children(p))
-      h = Math.max(h, 1 + height(c));
+    // depth-first walk with an explicit stack holding, for each position on the
+    // current path below p, the iterator over its remaining children
+    Stack<Iterator<Position<E>>> path = new ArrayStack<>();
+    path.push(children(p).iterator());
+    while (!path.isEmpty()) {
+      Iterator<Position<E>> rest = path.top();
+      if (rest.hasNext()) {
+        path.push(children(rest.next()).iterator());
+        h = Math.max(h, path.size() - 1);
+      } else
+        path.pop();
+    }
     return h;
   }
 
@@ -138,68 +151,163 @@ public abstract class AbstractTree<E> implements Tree<E> {
   @Override
   public Iterable<Position<E>> positions() { return preorder(); }
 
-  /**
-   * Adds positions of the subtree rooted at Position p to the given
-   * snapshot using a preorder traversal
-   * @param p       Position serving as the root of a subtree
-   * @param snapshot  a list to which results are appended
-   */
-  private void preorderSubtree(Position<E> p, List<Position<E>> snapshot) {
-    snapshot.add(p);                       // for preorder, we add position p before exploring subtrees
-    for (Position<E> c : children(p))
-      preorderSubtree(c, snapshot);
-  }
+  //---------------- nested Traversal class ----------------
+  /*
+   * A view of the tree's positions in some traversal order. Nothing is copied:
+   * each iterator walks the tree one step at a time as it is advanced, so a
+   * caller that stops early pays only for the positions it has seen. The tree
+   * should not be modified during iteration; use snapshot() for that.
+   */
+  protected abstract class Traversal implements Iterable<Position<E>> {
+    /** Lists the positions in traversal order, in the same form as a list of them. */
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("[");
+      for (Position<E> p : this) {
+        if (sb.length() > 1) sb.append(", ");
+        sb.append(p);
+      }
+      return sb.append("]").toString();
+    }
+  } //----------- end of nested Traversal class -----------
+
+  //---------------- nested PreorderIterator class ----------------
+  /*
+   * Keeps, for each position on the path from the root to the one last
+   * returned, an iterator over its remaining children: O(height) space.
+   */
+  private class PreorderIterator implements Iterator<Position<E>> {
+    private final Stack<Iterator<Position<E>>> path = new ArrayStack<>();
+    private Position<E> next = root();      // position to report next (null if done)
+
+    public boolean hasNext() { return next != null; }
+
+    public Position<E> next() {
+      if (next == null) throw new NoSuchElementException("No further positions");
+      Position<E> p = next;
+      path.push(children(p).iterator());    // for preorder, p is reported before its subtrees
+      next = null;
+      while (next == null && !path.isEmpty()) {
+        Iterator<Position<E>> rest = path.top();
+        if (rest.hasNext()) next = rest.next();
+        else path.pop();
+      }
+      return p;
+    }
+  } //----------- end of nested PreorderIterator class -----------
+
+  //---------------- nested PostorderIterator class ----------------
+  /*
+   * Keeps the path from the root to the next position to report, with an
+   * iterator over the remaining children of each: O(height) space.
+   */
+  private class PostorderIterator implements Iterator<Position<E>> {
+    private final Stack<Position<E>> nodes = new ArrayStack<>();
+    private final Stack<Iterator<Position<E>>> path = new ArrayStack<>();
+    private Position<E> next;               // position to report next (null if done)
+
+    PostorderIterator() {
+      if (root() != null) {
+        nodes.push(root());
+        path.push(children(root()).iterator());
+      }
+      advance();
+    }
+
+    /** Descends to the next position whose subtrees have all been reported. */
+    private void advance() {
+      next = null;
+      while (!path.isEmpty()) {
+        Iterator<Position<E>> rest = path.top();
+        if (rest.hasNext()) {
+          Position<E> c = rest.next();
+          nodes.push(c);
+          path.push(children(c).iterator());
+        } else {
+          path.pop();
+          next = nodes.pop();               // for postorder, p is reported after its subtrees
+          return;
+        }
+      }
+    }
+
+    public boolean hasNext() { return next != null; }
+
+    public Position<E> next() {
+      if (next == null) throw new NoSuchElementException("No further positions");
+      Position<E> p = next;
+      advance();
+      return p;
+    }
+  } //----------- end of nested PostorderIterator class -----------
+
+  //---------------- nested BreadthFirstIterator class ----------------
+  /*
+   * Keeps the fringe of positions seen but not yet reported in an array
+   * queue, so its space is bounded by the widest level of the tree.
+   */
+  private class BreadthFirstIterator implements Iterator<Position<E>> {
+    private final Queue<Position<E>> fringe = new ArrayQueue<>();
+
+    BreadthFirstIterator() {
+      if (root() != null) fringe.enqueue(root());   // start with the root
+    }
+
+    public boolean hasNext() { return !fringe.isEmpty(); }
+
+    public Position<E> next() {
+      if (fringe.isEmpty()) throw new NoSuchElementException("No further positions");
+      Position<E> p = fringe.dequeue();     // remove from front of the queue
+      for (Position<E> c : children(p))
+        fringe.enqueue(c);                  // add children to back of queue
+      return p;
+    }
+  } //----------- end of nested BreadthFirstIterator class -----------
 
   /**
    * Returns an iterable collection of positions of the tree, reported in preorder.
+   * Positions are produced on demand, using space proportional to the height.
    * @return iterable collection of the tree's positions in preorder
    */
   public Iterable<Position<E>> preorder() {
-    List<Position<E>> snapshot = new ArrayList<>();
-    if (!isEmpty())
-      preorderSubtree(root(), snapshot);   // fill the snapshot recursively
-    return snapshot;
-  }
-
-  /**
-   * Adds positions of the subtree rooted at Position p to the given
-   * snapshot using a postorder traversal
-   * @param p       Position serving as the root of a subtree
-   * @param snapshot  a list to which results are appended
-   */
-  private void postorderSubtree(Position<E> p, List<Position<E>> snapshot) {
-    for (Position<E> c : children(p))
-      postorderSubtree(c, snapshot);
-    snapshot.add(p);                       // for postorder, we add position p after exploring subtrees
+    return new Traversal() {
+      public Iterator<Position<E>> iterator() { return new PreorderIterator(); }
+    };
   }
 
   /**
    * Returns an iterable collection of positions of the tree, reported in postorder.
+   * Positions are produced on demand, using space proportional to the height.
    * @return iterable collection of the tree's positions in postorder
    */
   public Iterable<Position<E>> postorder() {
-    List<Position<E>> snapshot = new ArrayList<>();
-    if (!isEmpty())
-      postorderSubtree(root(), snapshot);   // fill the snapshot recursively
-    return snapshot;
+    return new Traversal() {
+      public Iterator<Position<E>> iterator() { return new PostorderIterator(); }
+    };
   }
 
   /**
    * Returns an iterable collection of positions of the tree in breadth-first order.
+   * Positions are produced on demand, using space proportional to the width.
    * @return iterable collection of the tree's positions in breadth-first order
    */
   public Iterable<Position<E>> breadthfirst() {
+    return new Traversal() {
+      public Iterator<Position<E>> iterator() { return new BreadthFirstIterator(); }
+    };
+  }
+
+  /**
+   * Copies the positions of a traversal into a list, for callers that need
+   * to modify the tree while going through them, or to go through them more
+   * than once.
+   * @param traversal  any of this tree's traversals, such as preorder()
+   * @return a list of the traversal's positions, in order
+   */
+  public List<Position<E>> snapshot(Iterable<Position<E>> traversal) {
     List<Position<E>> snapshot = new ArrayList<>();
-    if (!isEmpty()) {
-      Queue<Position<E>> fringe = new LinkedQueue<>();
-      fringe.enqueue(root());                 // start with the root
-      while (!fringe.isEmpty()) {
-        Position<E> p = fringe.dequeue();     // remove from front of the queue
-        snapshot.add(p);                      // report this position
-        for (Position<E> c : children(p))
-          fringe.enqueue(c);                  // add children to back of queue
-      }
-    }
+    for (Position<E> p : traversal)
+      snapshot.add(p);
     return snapshot;
   }
-}
\ No newline at end of file
+}
@@ -4,13 +4,80 @@ public class ArrayQueue<E> implements Queue<E> {
     private Object[] arr;
     private int head;
     private int tail;
+    // growable mode only: the array grows by growthFactor when full and shrinks
+    // by it once occupancy falls to shrinkThreshold, never below minCapacity
+    private final boolean growable;
+    private final double growthFactor;
+    private final double shrinkThreshold;
+    private final int minCapacity;
 
+    /**
+     * Creates a queue of fixed capacity; enqueue throws IllegalStateException
+     * once it is full.
+     */
     public ArrayQueue(int capacity) {
         this.capacity = capacity;
         this.arr = new Object[capacity];
 
         head = 0;
         tail = -1;
+        growable = false;
+        growthFactor = 1;
+        shrinkThreshold = 0;
+        minCapacity = capacity;
+    }
+
+    /**
+     * Creates a growable queue with initial capacity 16 that doubles when full
+     * and halves when a quarter full.
+     */
+    public ArrayQueue() {
+        this(16, 2.0, 0.25);
+    }
+
+    /**
+     * Creates a growable queue. When full, the capacity is multiplied by the
+     * growth factor; when the occupancy falls to the shrink threshold, it is
+     * divided by it again, but never below the initial capacity. The threshold
+     * must be below 1 / growthFactor, so that a shrunken queue is not full; 0
+     * disables shrinking.
+     *
+     * @param capacity        the initial (and minimum) capacity
+     * @param growthFactor    factor by which the capacity grows (greater than 1)
+     * @param shrinkThreshold fraction of the capacity in use at which it shrinks
+     */
+    public ArrayQueue(int capacity, double growthFactor, double shrinkThreshold) {
+        if (capacity < 1 || growthFactor <= 1 || shrinkThreshold < 0 || shrinkThreshold >= 1 / growthFactor)
+            throw new IllegalArgumentException("Illegal growth parameters");
+        this.capacity = capacity;
+        this.arr = new Object[capacity];
+
+        head = 0;
+        tail = -1;
+        growable = true;
+        this.growthFactor = growthFactor;
+        this.shrinkThreshold = shrinkThreshold;
+        minCapacity = capacity;
+    }
+
+    /**
+     * Moves the elements to a new array of the given capacity, unwrapping the
+     * circular layout so that the head lands at index 0.
+     */
+    private void resize(int newCapacity) {
+        Object[] other = new Object[newCapacity];
+        int firstPart = Math.min(size, capacity - head);    // from head up to the end of the array
+        System.arraycopy(arr, head, other, 0, firstPart);
+        System.arraycopy(arr, 0, other, firstPart, size - firstPart);  // the part that wrapped around
+        arr = other;
+        capacity = newCapacity;
+        head = 0;
+        tail = size - 1;
+    }
+
+    /** Returns the current length of the underlying array. */
+    public int capacity() {
+        return capacity;
     }
 
     @Override
@@ -29,7 +96,10 @@ public class ArrayQueue<E> implements Queue<E> {
 
     @Override
     public void enqueue(E e) {
-        if (isFull()) throw new IllegalStateException("Queue is full");
+        if (isFull()) {
+            if (!growable) throw new IllegalStateException("Queue is full");
+            resize(Math.max(capacity + 1, (int) Math.min(Integer.MAX_VALUE - 8, (long) (capacity * growthFactor))));
+        }
         tail++;
         if (tail == capacity) tail = 0;
 
@@ -47,9 +117,12 @@ public class ArrayQueue<E> implements Queue<E> {
     public E dequeue() {
         if (isEmpty()) return null;
         E e = (E) arr[head];
+        arr[head] = null;   // help garbage collection
         head++;
         if (head == capacity) head = 0;
         size--;
+        if (growable && capacity > minCapacity && size <= capacity * shrinkThreshold)
+            resize(Math.max(minCapacity, (int) (capacity / growthFactor)));
         return e;
     }
 
@@ -73,10 +146,14 @@ public class ArrayQueue<E> implements Queue<E> {
 		System.out.println(q.dequeue());
 		q.enqueue(7);
 		System.out.println(q.dequeue());
-		q.enqueue(7);
-		q.enqueue(7);
-		q.enqueue(7);
-		q.enqueue(7);
+		try {
+			q.enqueue(7);
+			q.enqueue(7);
+			q.enqueue(7);
+			q.enqueue(7);
+		} catch (IllegalStateException e) {
+			System.out.println(e.getMessage());
+		}
 
         /**
          * Expected output:
@@ -90,9 +167,50 @@ public class ArrayQueue<E> implements Queue<E> {
 		 * 6
 		 * null
 		 * 7
-		 * queue is full exception
+		 * Queue is full
          */
 
+        benchmark();
+    }
+
+    // remainder of class is a simple footprint/throughput benchmark
+
+    /**
+     * Holds 10,000 queues that each peaked at 256 elements and now hold 8, and
+     * reports their footprint; then times enqueue/dequeue through a queue of 1000.
+     */
+    private static void measure(String name, java.util.function.Supplier<Queue<Integer>> factory) {
+        int queues = 10_000;
+        Queue<?>[] held = new Queue<?>[queues];
+        long before = Benchmarks.usedMemory();
+        for (int i = 0; i < queues; ++i) {
+            Queue<Integer> q = factory.get();
+            for (int j = 0; j < 256; ++j) q.enqueue(j);
+            for (int j = 0; j < 248; ++j) q.dequeue();
+            held[i] = q;
+        }
+        long bytes = Benchmarks.usedMemory() - before;
+
+        Queue<Integer> q = factory.get();
+        for (int i = 0; i < 1000; ++i) q.enqueue(i);
+        int ops = 20_000_000;
+        long sum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < ops; ++i) {
+            q.enqueue(i);
+            sum += q.dequeue();
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-30s %8d bytes per queue  %6.2f ns/op (%d, %d)%n", name, bytes / queues,
+                (double) elapsed / ops, sum, held.length);
+    }
+
+    private static void benchmark() {
+        for (int round = 0; round < 2; ++round) {
+            measure("ArrayQueue(1024) fixed", () -> new ArrayQueue<>(1024));
+            measure("ArrayQueue() growable", () -> new ArrayQueue<>());
+            measure("LinkedQueue", () -> new LinkedQueue<>());
+        }
     }
 
 
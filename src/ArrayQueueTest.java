@@ -0,0 +1,65 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class ArrayQueueTest {
+
+	@Test
+	void testFixedCapacity() {
+		ArrayQueue<Integer> q = new ArrayQueue<>(3);
+		for(int i = 0; i < 3; ++i)
+			q.enqueue(i);
+		assertThrows(IllegalStateException.class, () -> q.enqueue(3));
+		assertEquals(0, q.dequeue());
+		q.enqueue(3);
+		assertEquals(3, q.capacity());
+	}
+
+	@Test
+	void testGrowWhileWrapped() {
+		ArrayQueue<Integer> q = new ArrayQueue<>(4, 2.0, 0.25);
+		for(int i = 0; i < 4; ++i)
+			q.enqueue(i);
+		q.dequeue();
+		q.dequeue();
+		q.enqueue(4);
+		q.enqueue(5);  // the contents now wrap around the end of the array
+		q.enqueue(6);  // full, so the array grows and unwraps
+		assertEquals(8, q.capacity());
+		for(int i = 2; i <= 6; ++i)
+			assertEquals(i, q.dequeue());
+		assertTrue(q.isEmpty());
+	}
+
+	@Test
+	void testShrink() {
+		ArrayQueue<Integer> q = new ArrayQueue<>();
+		for(int i = 0; i < 1000; ++i)
+			q.enqueue(i);
+		assertTrue(q.capacity() >= 1000);
+		for(int i = 0; i < 996; ++i)
+			assertEquals(i, q.dequeue());
+		assertEquals(16, q.capacity());
+		for(int i = 996; i < 1000; ++i)
+			assertEquals(i, q.dequeue());
+		assertNull(q.dequeue());
+	}
+
+	@Test
+	void testRandomAgainstJdk() {
+		ArrayQueue<Integer> q = new ArrayQueue<>(2, 1.5, 0.3);
+		java.util.ArrayDeque<Integer> expected = new java.util.ArrayDeque<>();
+		java.util.Random rnd = new java.util.Random(41);
+		for(int i = 0; i < 20000; ++i) {
+			if (rnd.nextInt(5) < 3) {
+				q.enqueue(i);
+				expected.addLast(i);
+			} else {
+				assertEquals(expected.pollFirst(), q.dequeue());
+			}
+			assertEquals(expected.size(), q.size());
+			assertEquals(expected.peekFirst(), q.first());
+		}
+	}
+
+}
@@ -3,6 +3,12 @@ public class ArrayStack<E> implements Stack<E> {
 	private Object[] stk;
 	private int capacity;
 	private int size;
+	// growable mode only: the array grows by growthFactor when full and shrinks
+	// by it once occupancy falls to shrinkThreshold, never below minCapacity
+	private final boolean growable;
+	private final double growthFactor;
+	private final double shrinkThreshold;
+	private final int minCapacity;
 
 	public static void main(String[] args) {
 		ArrayStack<Integer> s = new ArrayStack<Integer>(128);
@@ -13,17 +19,70 @@ public class ArrayStack<E> implements Stack<E> {
 		System.out.println(s.pop());
 		System.out.println(s.pop());
 		System.out.println(s.size());
+
+		benchmark();
 	}
 
+	/**
+	 * Creates a stack of fixed capacity; push throws IllegalStateException once
+	 * it is full.
+	 */
 	public ArrayStack(int capacity) {
 		stk = new Object[capacity];
 		this.capacity = capacity;
+		growable = false;
+		growthFactor = 1;
+		shrinkThreshold = 0;
+		minCapacity = capacity;
+	}
+
+	/**
+	 * Creates a growable stack with initial capacity 16 that doubles when full
+	 * and halves when a quarter full.
+	 */
+	public ArrayStack() {
+		this(16, 2.0, 0.25);
+	}
+
+	/**
+	 * Creates a growable stack. When full, the capacity is multiplied by the
+	 * growth factor; when the occupancy falls to the shrink threshold, it is
+	 * divided by it again, but never below the initial capacity. The threshold
+	 * must be below 1 / growthFactor, so that a shrunken stack is not full; 0
+	 * disables shrinking.
+	 *
+	 * @param capacity        the initial (and minimum) capacity
+	 * @param growthFactor    factor by which the capacity grows (greater than 1)
+	 * @param shrinkThreshold fraction of the capacity in use at which it shrinks
+	 */
+	public ArrayStack(int capacity, double growthFactor, double shrinkThreshold) {
+		if (capacity < 1 || growthFactor <= 1 || shrinkThreshold < 0 || shrinkThreshold >= 1 / growthFactor)
+			throw new IllegalArgumentException("Illegal growth parameters");
+		stk = new Object[capacity];
+		this.capacity = capacity;
+		growable = true;
+		this.growthFactor = growthFactor;
+		this.shrinkThreshold = shrinkThreshold;
+		minCapacity = capacity;
 	}
 
 	private boolean isFull() {
 		return size == capacity;
 	}
 
+	/** Moves the elements to a new array of the given capacity. */
+	private void resize(int newCapacity) {
+		Object[] bigger = new Object[newCapacity];
+		System.arraycopy(stk, 0, bigger, 0, size);
+		stk = bigger;
+		capacity = newCapacity;
+	}
+
+	/** Returns the current length of the underlying array. */
+	public int capacity() {
+		return capacity;
+	}
+
 	@Override
 	public int size() {
 		return size;
@@ -36,7 +95,10 @@ public class ArrayStack<E> implements Stack<E> {
 
 	@Override
 	public void push(E e) {
-		if (isFull()) throw new IllegalStateException("Stack is full");
+		if (isFull()) {
+			if (!growable) throw new IllegalStateException("Stack is full");
+			resize(Math.max(capacity + 1, (int) Math.min(Integer.MAX_VALUE - 8, (long) (capacity * growthFactor))));
+		}
 		stk[size++] = e;
 	}
 
@@ -54,7 +116,48 @@ public class ArrayStack<E> implements Stack<E> {
 		E e = (E) stk[size];
 		stk[size] = null;
 
+		if (growable && capacity > minCapacity && size <= capacity * shrinkThreshold)
+			resize(Math.max(minCapacity, (int) (capacity / growthFactor)));
 		return e;
 	}
 
+	// remainder of class is a simple footprint/throughput benchmark
+
+	/**
+	 * Holds 10,000 stacks that each peaked at 256 elements and now hold 8, and
+	 * reports their footprint; then times push/pop pairs on one stack.
+	 */
+	private static void measure(String name, java.util.function.Supplier<Stack<Integer>> factory) {
+		int stacks = 10_000;
+		Stack<?>[] held = new Stack<?>[stacks];
+		long before = Benchmarks.usedMemory();
+		for (int i = 0; i < stacks; ++i) {
+			Stack<Integer> s = factory.get();
+			for (int j = 0; j < 256; ++j) s.push(j);
+			for (int j = 0; j < 248; ++j) s.pop();
+			held[i] = s;
+		}
+		long bytes = Benchmarks.usedMemory() - before;
+
+		Stack<Integer> s = factory.get();
+		int ops = 20_000_000;
+		long sum = 0;
+		long start = System.nanoTime();
+		for (int i = 0; i < ops; ++i) {
+			s.push(i);
+			if ((i & 1) == 1) sum += s.pop() + s.pop();
+		}
+		long elapsed = System.nanoTime() - start;
+		System.out.printf("%-30s %8d bytes per stack  %6.2f ns/op (%d, %d)%n", name, bytes / stacks,
+				(double) elapsed / ops, sum, held.length);
+	}
+
+	private static void benchmark() {
+		for (int round = 0; round < 2; ++round) {
+			measure("ArrayStack(1024) fixed", () -> new ArrayStack<>(1024));
+			measure("ArrayStack() growable", () -> new ArrayStack<>());
+			measure("LinkedStack", () -> new LinkedStack<>());
+		}
+	}
+
 }
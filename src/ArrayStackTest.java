@@ -0,0 +1,34 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class ArrayStackTest {
+
+	@Test
+	void testFixedCapacity() {
+		ArrayStack<Integer> s = new ArrayStack<>(3);
+		for(int i = 0; i < 3; ++i)
+			s.push(i);
+		assertThrows(IllegalStateException.class, () -> s.push(3));
+	}
+
+	@Test
+	void testGrowAndShrink() {
+		ArrayStack<Integer> s = new ArrayStack<>(4, 2.0, 0.25);
+		for(int i = 0; i < 100; ++i)
+			s.push(i);
+		assertEquals(128, s.capacity());
+		for(int i = 99; i >= 2; --i)
+			assertEquals(i, s.pop());
+		assertEquals(4, s.capacity());
+		assertEquals(1, s.top());
+		assertEquals(2, s.size());
+	}
+
+	@Test
+	void testIllegalParameters() {
+		assertThrows(IllegalArgumentException.class, () -> new ArrayStack<Integer>(4, 1.0, 0.1));
+		assertThrows(IllegalArgumentException.class, () -> new ArrayStack<Integer>(4, 2.0, 0.5));
+	}
+
+}
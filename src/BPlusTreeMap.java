@@ -0,0 +1,675 @@
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * An implementation of a sorted map using a B+ tree.
+ * <p>
+ * Every node holds up to <code>order</code> keys in a flat array, so a search
+ * touches one node per level of a tree that is only log_order(n) deep, instead
+ * of one node per key comparison. Entries live only in the leaves, which are
+ * linked in key order for range scans; inner nodes hold separator keys, where
+ * keys[i] is no greater than any key in children[i+1] and greater than every
+ * key in children[i]. Every node other than the root holds at least order/2 keys.
+ */
+public class BPlusTreeMap<K, V> extends AbstractSortedMap<K, V> {
+
+    //---------------- nested node classes ----------------
+    private static abstract class Node {
+        Object[] keys;          // keys[0..n-1] in increasing order
+        int n = 0;              // number of keys in use
+    }
+
+    private static final class Leaf extends Node {
+        Object[] vals;          // vals[i] is the value of keys[i]
+        Leaf prev, next;        // neighbouring leaves in key order
+
+        Leaf(int order) {
+            keys = new Object[order + 1];   // one extra slot for a transient overflow
+            vals = new Object[order + 1];
+        }
+    }
+
+    private static final class Inner extends Node {
+        Node[] kids;            // kids[0..n], one more than the keys
+
+        Inner(int order) {
+            keys = new Object[order + 1];
+            kids = new Node[order + 2];
+        }
+    }
+    //----------- end of nested node classes -----------
+
+    private final int order;        // maximum number of keys in a node
+    private Node root;
+    private int size = 0;
+    private int modCount = 0;       // structural modifications, for fail-fast iterators
+    private Object promoted;        // separator pushed up by the last split during put
+
+    /**
+     * Constructs an empty map with 64 keys per node, using the natural ordering of keys.
+     */
+    public BPlusTreeMap() {
+        this(64);
+    }
+
+    /**
+     * Constructs an empty map with the given number of keys per node, using the
+     * natural ordering of keys.
+     *
+     * @param order maximum number of keys per node (at least 3)
+     */
+    public BPlusTreeMap(int order) {
+        super();
+        if (order < 3) throw new IllegalArgumentException("Order must be at least 3");
+        this.order = order;
+        root = new Leaf(order);
+    }
+
+    /**
+     * Constructs an empty map with the given number of keys per node, using the
+     * given comparator to order keys.
+     *
+     * @param comp  comparator defining the order of keys in the map
+     * @param order maximum number of keys per node (at least 3)
+     */
+    public BPlusTreeMap(Comparator<K> comp, int order) {
+        super(comp);
+        if (order < 3) throw new IllegalArgumentException("Order must be at least 3");
+        this.order = order;
+        root = new Leaf(order);
+    }
+
+    // private utilities
+
+    @SuppressWarnings({"unchecked"})
+    private K key(Node node, int i) {
+        return (K) node.keys[i];
+    }
+
+    /**
+     * Returns the first index i of the node with keys[i] >= key (n if none).
+     */
+    private int lowerBound(Node node, K key) {
+        int lo = 0, hi = node.n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compare(key(node, mid), key) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * Returns the first index i of the node with keys[i] > key (n if none).
+     */
+    private int upperBound(Node node, K key) {
+        int lo = 0, hi = node.n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compare(key(node, mid), key) <= 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * Returns the leaf whose key range covers the given key.
+     */
+    private Leaf findLeaf(K key) {
+        Node node = root;
+        while (node instanceof Inner)
+            node = ((Inner) node).kids[upperBound(node, key)];
+        return (Leaf) node;
+    }
+
+    private Leaf firstLeaf() {
+        Node node = root;
+        while (node instanceof Inner)
+            node = ((Inner) node).kids[0];
+        return (Leaf) node;
+    }
+
+    private Leaf lastLeaf() {
+        Node node = root;
+        while (node instanceof Inner)
+            node = ((Inner) node).kids[node.n];
+        return (Leaf) node;
+    }
+
+    @SuppressWarnings({"unchecked"})
+    private Entry<K, V> entryAt(Leaf leaf, int i) {
+        return new MapEntry<>((K) leaf.keys[i], (V) leaf.vals[i]);
+    }
+
+    // public methods
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return number of entries in the map
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the value associated with the specified key, or null if no such entry
+     * exists.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the associated value, or null if no such entry exists
+     */
+    @Override
+    @SuppressWarnings({"unchecked"})
+    public V get(K key) throws IllegalArgumentException {
+        checkKey(key);
+        Leaf leaf = findLeaf(key);
+        int i = lowerBound(leaf, key);
+        if (i < leaf.n && compare(key(leaf, i), key) == 0) return (V) leaf.vals[i];
+        return null;
+    }
+
+    /**
+     * Associates the given value with the given key. If an entry with the key was
+     * already in the map, this replaced the previous value with the new one and
+     * returns the old value. Otherwise, a new entry is added and null is returned.
+     *
+     * @param key   key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the key (or null, if no such
+     * entry)
+     */
+    @Override
+    @SuppressWarnings({"unchecked"})
+    public V put(K key, V value) throws IllegalArgumentException {
+        checkKey(key);
+        Leaf leaf = findLeaf(key);
+        int i = lowerBound(leaf, key);
+        if (i < leaf.n && compare(key(leaf, i), key) == 0) {
+            V old = (V) leaf.vals[i];
+            leaf.vals[i] = value;
+            return old;
+        }
+        Node sibling = insert(root, key, value);
+        if (sibling != null) {              // the root split, so the tree grows a level
+            Inner top = new Inner(order);
+            top.keys[0] = promoted;
+            top.kids[0] = root;
+            top.kids[1] = sibling;
+            top.n = 1;
+            root = top;
+        }
+        size++;
+        modCount++;
+        return null;
+    }
+
+    /**
+     * Inserts a new key below the given node. Returns the new right sibling if the
+     * node had to split (leaving its separator in <code>promoted</code>), else null.
+     */
+    private Node insert(Node node, K key, V value) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            int i = lowerBound(leaf, key);
+            System.arraycopy(leaf.keys, i, leaf.keys, i + 1, leaf.n - i);
+            System.arraycopy(leaf.vals, i, leaf.vals, i + 1, leaf.n - i);
+            leaf.keys[i] = key;
+            leaf.vals[i] = value;
+            leaf.n++;
+            return leaf.n > order ? splitLeaf(leaf) : null;
+        }
+        Inner inner = (Inner) node;
+        int c = upperBound(inner, key);
+        Node sibling = insert(inner.kids[c], key, value);
+        if (sibling == null) return null;
+        System.arraycopy(inner.keys, c, inner.keys, c + 1, inner.n - c);
+        System.arraycopy(inner.kids, c + 1, inner.kids, c + 2, inner.n - c);
+        inner.keys[c] = promoted;
+        inner.kids[c + 1] = sibling;
+        inner.n++;
+        return inner.n > order ? splitInner(inner) : null;
+    }
+
+    private Leaf splitLeaf(Leaf leaf) {
+        Leaf right = new Leaf(order);
+        int keep = leaf.n / 2 + leaf.n % 2;
+        right.n = leaf.n - keep;
+        System.arraycopy(leaf.keys, keep, right.keys, 0, right.n);
+        System.arraycopy(leaf.vals, keep, right.vals, 0, right.n);
+        for (int i = keep; i < leaf.n; ++i) {
+            leaf.keys[i] = null;            // help garbage collection
+            leaf.vals[i] = null;
+        }
+        leaf.n = keep;
+        right.next = leaf.next;             // link the new leaf into the chain
+        if (right.next != null) right.next.prev = right;
+        right.prev = leaf;
+        leaf.next = right;
+        promoted = right.keys[0];
+        return right;
+    }
+
+    private Inner splitInner(Inner inner) {
+        Inner right = new Inner(order);
+        int mid = inner.n / 2;
+        promoted = inner.keys[mid];         // moves up; kept in neither half
+        right.n = inner.n - mid - 1;
+        System.arraycopy(inner.keys, mid + 1, right.keys, 0, right.n);
+        System.arraycopy(inner.kids, mid + 1, right.kids, 0, right.n + 1);
+        for (int i = mid; i < inner.n; ++i) inner.keys[i] = null;
+        for (int i = mid + 1; i <= inner.n; ++i) inner.kids[i] = null;
+        inner.n = mid;
+        return right;
+    }
+
+    /**
+     * Removes the entry with the specified key, if present, and returns its
+     * associated value. Otherwise does nothing and returns null.
+     *
+     * @param key the key whose entry is to be removed from the map
+     * @return the previous value associated with the removed key, or null if no
+     * such entry exists
+     */
+    @Override
+    @SuppressWarnings({"unchecked"})
+    public V remove(K key) throws IllegalArgumentException {
+        checkKey(key);
+        Leaf leaf = findLeaf(key);
+        int i = lowerBound(leaf, key);
+        if (i == leaf.n || compare(key(leaf, i), key) != 0) return null;
+        V old = (V) leaf.vals[i];
+        delete(root, key);
+        if (root instanceof Inner && root.n == 0)   // the root emptied, so the tree shrinks a level
+            root = ((Inner) root).kids[0];
+        size--;
+        modCount++;
+        return old;
+    }
+
+    /**
+     * Deletes a key known to be present below the given node, restoring the
+     * minimum occupancy of any child left underfull.
+     */
+    private void delete(Node node, K key) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            int i = lowerBound(leaf, key);
+            System.arraycopy(leaf.keys, i + 1, leaf.keys, i, leaf.n - i - 1);
+            System.arraycopy(leaf.vals, i + 1, leaf.vals, i, leaf.n - i - 1);
+            leaf.n--;
+            leaf.keys[leaf.n] = null;
+            leaf.vals[leaf.n] = null;
+            return;
+        }
+        Inner inner = (Inner) node;
+        int c = upperBound(inner, key);
+        delete(inner.kids[c], key);
+        if (inner.kids[c].n < order / 2) fixUnderflow(inner, c);
+    }
+
+    /**
+     * Refills child c of the parent by borrowing a key from a sibling that can
+     * spare one, or else merges it with a sibling.
+     */
+    private void fixUnderflow(Inner parent, int c) {
+        Node left = c > 0 ? parent.kids[c - 1] : null;
+        Node right = c < parent.n ? parent.kids[c + 1] : null;
+        if (left != null && left.n > order / 2) {
+            borrowFromLeft(parent, c);
+        } else if (right != null && right.n > order / 2) {
+            borrowFromRight(parent, c);
+        } else if (left != null) {
+            merge(parent, c - 1);
+        } else {
+            merge(parent, c);
+        }
+    }
+
+    private void borrowFromLeft(Inner parent, int c) {
+        Node child = parent.kids[c];
+        Node left = parent.kids[c - 1];
+        System.arraycopy(child.keys, 0, child.keys, 1, child.n);
+        if (child instanceof Leaf) {
+            Leaf l = (Leaf) left, ch = (Leaf) child;
+            System.arraycopy(ch.vals, 0, ch.vals, 1, ch.n);
+            ch.keys[0] = l.keys[l.n - 1];
+            ch.vals[0] = l.vals[l.n - 1];
+            l.keys[l.n - 1] = null;
+            l.vals[l.n - 1] = null;
+            parent.keys[c - 1] = ch.keys[0];
+        } else {
+            Inner l = (Inner) left, ch = (Inner) child;
+            System.arraycopy(ch.kids, 0, ch.kids, 1, ch.n + 1);
+            ch.keys[0] = parent.keys[c - 1];    // separator rotates down
+            ch.kids[0] = l.kids[l.n];
+            parent.keys[c - 1] = l.keys[l.n - 1];
+            l.keys[l.n - 1] = null;
+            l.kids[l.n] = null;
+        }
+        child.n++;
+        left.n--;
+    }
+
+    private void borrowFromRight(Inner parent, int c) {
+        Node child = parent.kids[c];
+        Node right = parent.kids[c + 1];
+        if (child instanceof Leaf) {
+            Leaf r = (Leaf) right, ch = (Leaf) child;
+            ch.keys[ch.n] = r.keys[0];
+            ch.vals[ch.n] = r.vals[0];
+            System.arraycopy(r.keys, 1, r.keys, 0, r.n - 1);
+            System.arraycopy(r.vals, 1, r.vals, 0, r.n - 1);
+            r.keys[r.n - 1] = null;
+            r.vals[r.n - 1] = null;
+            parent.keys[c] = r.keys[0];
+        } else {
+            Inner r = (Inner) right, ch = (Inner) child;
+            ch.keys[ch.n] = parent.keys[c];     // separator rotates down
+            ch.kids[ch.n + 1] = r.kids[0];
+            parent.keys[c] = r.keys[0];
+            System.arraycopy(r.keys, 1, r.keys, 0, r.n - 1);
+            System.arraycopy(r.kids, 1, r.kids, 0, r.n);
+            r.keys[r.n - 1] = null;
+            r.kids[r.n] = null;
+        }
+        child.n++;
+        right.n--;
+    }
+
+    /**
+     * Merges child c+1 of the parent into child c and drops their separator.
+     */
+    private void merge(Inner parent, int c) {
+        Node left = parent.kids[c];
+        Node right = parent.kids[c + 1];
+        if (left instanceof Leaf) {
+            Leaf l = (Leaf) left, r = (Leaf) right;
+            System.arraycopy(r.keys, 0, l.keys, l.n, r.n);
+            System.arraycopy(r.vals, 0, l.vals, l.n, r.n);
+            l.n += r.n;
+            l.next = r.next;                    // unlink the emptied leaf
+            if (l.next != null) l.next.prev = l;
+        } else {
+            Inner l = (Inner) left, r = (Inner) right;
+            l.keys[l.n] = parent.keys[c];       // separator comes down between the halves
+            System.arraycopy(r.keys, 0, l.keys, l.n + 1, r.n);
+            System.arraycopy(r.kids, 0, l.kids, l.n + 1, r.n + 1);
+            l.n += r.n + 1;
+        }
+        System.arraycopy(parent.keys, c + 1, parent.keys, c, parent.n - c - 1);
+        System.arraycopy(parent.kids, c + 2, parent.kids, c + 1, parent.n - c - 1);
+        parent.n--;
+        parent.keys[parent.n] = null;
+        parent.kids[parent.n + 1] = null;
+    }
+
+    // additional behaviors of the SortedMap interface
+
+    /**
+     * Returns the entry having the least key (or null if map is empty).
+     *
+     * @return entry with least key (or null if map is empty)
+     */
+    @Override
+    public Entry<K, V> firstEntry() {
+        if (isEmpty()) return null;
+        return entryAt(firstLeaf(), 0);
+    }
+
+    /**
+     * Returns the entry having the greatest key (or null if map is empty).
+     *
+     * @return entry with greatest key (or null if map is empty)
+     */
+    @Override
+    public Entry<K, V> lastEntry() {
+        if (isEmpty()) return null;
+        Leaf leaf = lastLeaf();
+        return entryAt(leaf, leaf.n - 1);
+    }
+
+    /**
+     * Returns the entry at index i of the leaf, stepping to a neighbouring leaf if
+     * i falls just outside it (or null past either end of the map).
+     */
+    private Entry<K, V> entryNear(Leaf leaf, int i) {
+        if (i < 0) {
+            leaf = leaf.prev;
+            if (leaf == null) return null;
+            i = leaf.n - 1;
+        } else if (i >= leaf.n) {
+            leaf = leaf.next;
+            if (leaf == null) return null;
+            i = 0;
+        }
+        return entryAt(leaf, i);
+    }
+
+    /**
+     * Returns the entry with least key greater than or equal to given key (or null
+     * if no such key exists).
+     *
+     * @return entry with least key greater than or equal to given (or null if no
+     * such entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    @Override
+    public Entry<K, V> ceilingEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        Leaf leaf = findLeaf(key);
+        return entryNear(leaf, lowerBound(leaf, key));
+    }
+
+    /**
+     * Returns the entry with greatest key less than or equal to given key (or null
+     * if no such key exists).
+     *
+     * @return entry with greatest key less than or equal to given (or null if no
+     * such entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    @Override
+    public Entry<K, V> floorEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        Leaf leaf = findLeaf(key);
+        return entryNear(leaf, upperBound(leaf, key) - 1);
+    }
+
+    /**
+     * Returns the entry with greatest key strictly less than given key (or null if
+     * no such key exists).
+     *
+     * @return entry with greatest key strictly less than given (or null if no such
+     * entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    @Override
+    public Entry<K, V> lowerEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        Leaf leaf = findLeaf(key);
+        return entryNear(leaf, lowerBound(leaf, key) - 1);
+    }
+
+    /**
+     * Returns the entry with least key strictly greater than given key (or null if
+     * no such key exists).
+     *
+     * @return entry with least key strictly greater than given (or null if no such
+     * entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    @Override
+    public Entry<K, V> higherEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        Leaf leaf = findLeaf(key);
+        return entryNear(leaf, upperBound(leaf, key));
+    }
+
+    // Support for iteration
+
+    //---------------- nested EntryIterator class ----------------
+
+    /**
+     * Walks the linked leaves from a starting key up to an optional exclusive end
+     * key, in O(1) extra space. Fails fast if the map is structurally modified
+     * other than through the iterator's own remove().
+     */
+    private class EntryIterator implements Iterator<Entry<K, V>> {
+        private Leaf leaf;                  // leaf holding the next entry (null when done)
+        private int i;                      // index of the next entry within the leaf
+        private final K toKey;              // exclusive upper bound (null for none)
+        private K lastKey = null;           // key last returned (null if none)
+        private boolean removable = false;
+        private int expectedModCount = modCount;
+
+        EntryIterator(K fromKey, K toKey) {
+            this.toKey = toKey;
+            if (fromKey == null) {
+                leaf = firstLeaf();
+                i = 0;
+            } else {
+                leaf = findLeaf(fromKey);
+                i = lowerBound(leaf, fromKey);
+            }
+            settle();
+        }
+
+        /** Moves to the next leaf if the cursor is past the current one, and applies toKey. */
+        private void settle() {
+            while (leaf != null && i >= leaf.n) {
+                leaf = leaf.next;
+                i = 0;
+            }
+            if (leaf != null && toKey != null && compare(key(leaf, i), toKey) >= 0)
+                leaf = null;
+        }
+
+        public boolean hasNext() {
+            return leaf != null;
+        }
+
+        public Entry<K, V> next() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (leaf == null) throw new NoSuchElementException("No further entries");
+            Entry<K, V> e = entryAt(leaf, i++);
+            lastKey = e.getKey();
+            removable = true;
+            settle();
+            return e;
+        }
+
+        /**
+         * Removes the entry last returned. Removal may shift entries between leaves,
+         * so the cursor is re-positioned by searching for the next greater key.
+         */
+        public void remove() {
+            if (!removable) throw new IllegalStateException("nothing to remove");
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            BPlusTreeMap.this.remove(lastKey);
+            expectedModCount = modCount;
+            removable = false;
+            if (leaf != null) {
+                leaf = findLeaf(lastKey);
+                i = upperBound(leaf, lastKey);
+                settle();
+            }
+        }
+    } //----------- end of nested EntryIterator class -----------
+
+    //---------------- nested EntryIterable class ----------------
+    private class EntryIterable implements Iterable<Entry<K, V>> {
+        private final K fromKey, toKey;
+
+        EntryIterable(K fromKey, K toKey) {
+            this.fromKey = fromKey;
+            this.toKey = toKey;
+        }
+
+        public Iterator<Entry<K, V>> iterator() {
+            return new EntryIterator(fromKey, toKey);
+        }
+
+        public String toString() {
+            StringBuilder sb = new StringBuilder("[");
+            for (Iterator<Entry<K, V>> iter = iterator(); iter.hasNext(); ) {
+                sb.append(iter.next());
+                if (iter.hasNext()) sb.append(", ");
+            }
+            return sb.append("]").toString();
+        }
+    } //----------- end of nested EntryIterable class -----------
+
+    /**
+     * Returns an iterable collection of all key-value entries of the map, produced
+     * lazily in key order by walking the leaf chain.
+     *
+     * @return iterable collection of the map's entries
+     */
+    @Override
+    public Iterable<Entry<K, V>> entrySet() {
+        return new EntryIterable(null, null);
+    }
+
+    /**
+     * Returns an iterable containing all entries with keys in the range from
+     * <code>fromKey</code> inclusive to <code>toKey</code> exclusive, produced
+     * lazily by walking the leaf chain.
+     *
+     * @return iterable with keys in desired range
+     * @throws IllegalArgumentException if <code>fromKey</code> or
+     *                                  <code>toKey</code> is not compatible with
+     *                                  the map
+     */
+    @Override
+    public Iterable<Entry<K, V>> subMap(K fromKey, K toKey) throws IllegalArgumentException {
+        checkKey(fromKey);
+        checkKey(toKey);
+        return new EntryIterable(fromKey, toKey);
+    }
+
+    // remainder of class is a simple lookup/footprint benchmark
+
+    /** Fills the map, then reports heap per entry and random lookup latency. */
+    private static void benchmark(String name, SortedMap<Integer, Integer> m, Integer[] keys, Integer[] probes) {
+        long before = Benchmarks.usedMemory();
+        for (Integer k : keys) m.put(k, k);
+        long bytes = Benchmarks.usedMemory() - before;
+        long start = System.nanoTime();
+        long sum = 0;
+        for (Integer k : probes) sum += m.get(k);
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-14s get %6.1f ns/op  ~%d bytes/entry (%d)%n", name,
+                (double) elapsed / probes.length, bytes / keys.length, sum);
+    }
+
+    public static void main(String[] args) {
+        BPlusTreeMap<Integer, String> map = new BPlusTreeMap<>(4);
+        for (int i : new int[]{44, 17, 88, 8, 32, 65, 97, 28, 54, 82, 93, 21, 29, 76, 80})
+            map.put(i, Integer.toString(i));
+        System.out.println("entries: " + map.entrySet());
+        System.out.println("subMap(20, 60): " + map.subMap(20, 60));
+
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random rnd = new Random(1);
+        Integer[] keys = new Integer[n];
+        for (int i = 0; i < n; ++i) keys[i] = i;
+        for (int i = n - 1; i > 0; --i) {   // shuffle, so the binary trees stay shallow
+            int j = rnd.nextInt(i + 1);
+            Integer t = keys[i];
+            keys[i] = keys[j];
+            keys[j] = t;
+        }
+        Integer[] probes = new Integer[n];
+        for (int i = 0; i < n; ++i) probes[i] = keys[rnd.nextInt(n)];
+        for (int round = 0; round < 3; ++round) {
+            benchmark("TreeMap", new TreeMap<>(), keys, probes);
+            benchmark("AVLTreeMap", new AVLTreeMap<>(), keys, probes);
+            benchmark("BPlusTreeMap", new BPlusTreeMap<>(), keys, probes);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Iterator;
+
+import org.junit.jupiter.api.Test;
+
+class BPlusTreeMapTest {
+
+	@Test
+	void testGet() {
+		BPlusTreeMap<Integer, String> map = new BPlusTreeMap<>(4);
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+		assertEquals("15", map.get(15));
+		assertEquals("24", map.get(24));
+		assertEquals(null, map.get(-1));
+	}
+
+	@Test
+	void testPut() {
+		BPlusTreeMap<Integer, String> map = new BPlusTreeMap<>(4);
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+
+		assertEquals("[1, 2, 4, 5, 12, 15, 21, 23, 24, 26, 33, 35]", map.keySet().toString());
+		assertEquals("12", map.put(12, "twelve"));
+		assertEquals("twelve", map.get(12));
+		assertEquals(12, map.size());
+	}
+
+	@Test
+	void testRemoveK() {
+		BPlusTreeMap<Integer, String> map = new BPlusTreeMap<>(4);
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+
+		assertEquals(12, map.size());
+		assertEquals("26", map.remove(26));
+		assertEquals(null, map.remove(26));
+		assertEquals(11, map.size());
+	}
+
+	@Test
+	void testNavigation() {
+		BPlusTreeMap<Integer, String> map = new BPlusTreeMap<>(4);
+		assertNull(map.firstEntry());
+		assertNull(map.ceilingEntry(3));
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+
+		assertEquals(1, map.firstEntry().getKey());
+		assertEquals(35, map.lastEntry().getKey());
+		assertEquals(12, map.ceilingEntry(11).getKey());
+		assertEquals(2, map.ceilingEntry(2).getKey());
+		assertNull(map.ceilingEntry(36));
+		assertEquals(5, map.floorEntry(11).getKey());
+		assertEquals(5, map.floorEntry(5).getKey());
+		assertNull(map.floorEntry(0));
+		assertEquals(23, map.lowerEntry(24).getKey());
+		assertEquals(26, map.lowerEntry(31).getKey());
+		assertEquals(12, map.higherEntry(11).getKey());
+		assertNull(map.higherEntry(35));
+	}
+
+	@Test
+	void testSubMap() {
+		BPlusTreeMap<Integer, String> map = new BPlusTreeMap<>(4);
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+
+		assertEquals("[<12, 12>, <15, 15>, <21, 21>, <23, 23>, <24, 24>, <26, 26>, <33, 33>]", map.subMap(12, 34).toString());
+		assertEquals("[]", map.subMap(6, 11).toString());
+		assertEquals("[<1, 1>, <2, 2>, <4, 4>, <5, 5>, <12, 12>, <15, 15>, <21, 21>, <23, 23>, <24, 24>, <26, 26>, <33, 33>, <35, 35>]", map.entrySet().toString());
+	}
+
+	@Test
+	void testIteratorRemove() {
+		BPlusTreeMap<Integer, Integer> map = new BPlusTreeMap<>(3);
+		for(int i = 0; i < 200; ++i) {
+			map.put(i, i);
+		}
+		for(Iterator<Entry<Integer, Integer>> iter = map.entrySet().iterator(); iter.hasNext(); ) {
+			if (iter.next().getKey() % 3 != 0) iter.remove();
+		}
+		assertEquals(67, map.size());
+		int expected = 0;
+		for(Entry<Integer, Integer> e : map.entrySet()) {
+			assertEquals(expected, e.getKey());
+			expected += 3;
+		}
+	}
+
+	@Test
+	void testIteratorFailFast() {
+		BPlusTreeMap<Integer, Integer> map = new BPlusTreeMap<>(4);
+		for(int i = 0; i < 20; ++i) {
+			map.put(i, i);
+		}
+		Iterator<Entry<Integer, Integer>> iter = map.entrySet().iterator();
+		iter.next();
+		map.put(100, 100);
+		assertThrows(java.util.ConcurrentModificationException.class, () -> iter.next());
+	}
+
+	@Test
+	void testRandomMix() {
+		for(int order : new int[] {3, 4, 5, 64}) {
+			BPlusTreeMap<Integer, Integer> map = new BPlusTreeMap<>(order);
+			java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+			java.util.Random rnd = new java.util.Random(7);
+
+			for(int i = 0; i < 20000; ++i) {
+				int k = rnd.nextInt(2000);
+				if (rnd.nextBoolean()) assertEquals(expected.put(k, i), map.put(k, i));
+				else assertEquals(expected.remove(k), map.remove(k));
+				Entry<Integer, Integer> c = map.ceilingEntry(k);
+				assertEquals(expected.ceilingKey(k), c == null ? null : c.getKey());
+				Entry<Integer, Integer> f = map.lowerEntry(k);
+				assertEquals(expected.lowerKey(k), f == null ? null : f.getKey());
+			}
+			assertEquals(expected.size(), map.size());
+			assertEquals(expected.keySet().toString(), map.keySet().toString());
+			assertEquals(expected.subMap(500, 900).keySet().toString(), keys(map.subMap(500, 900)));
+		}
+	}
+
+	private static String keys(Iterable<Entry<Integer, Integer>> entries) {
+		java.util.ArrayList<Integer> list = new java.util.ArrayList<>();
+		for(Entry<Integer, Integer> e : entries) list.add(e.getKey());
+		return list.toString();
+	}
+
+}
@@ -3,6 +3,7 @@ public class BalanceableBinaryTree<K, V> extends LinkedBinaryTree<Entry<K, V>> {
 	// this extends the inherited LinkedBinaryTree.Node class
 	protected static class BSTNode<E> extends Node<E> {
 		int aux = 0;
+		int size = 1; // number of nodes in the subtree rooted here
 
 		BSTNode(E e, Node<E> parent, Node<E> leftChild, Node<E> rightChild) {
 			super(e, parent, leftChild, rightChild);
@@ -15,6 +16,14 @@ public class BalanceableBinaryTree<K, V> extends LinkedBinaryTree<Entry<K, V>> {
 		public void setAux(int value) {
 			aux = value;
 		}
+
+		public int getSize() {
+			return size;
+		}
+
+		public void setSize(int value) {
+			size = value;
+		}
 	} // --------- end of nested BSTNode class ---------
 
 	// positional-based methods related to aux field
@@ -27,6 +36,49 @@ public class BalanceableBinaryTree<K, V> extends LinkedBinaryTree<Entry<K, V>> {
 		((BSTNode<Entry<K, V>>) p).setAux(value);
 	}
 
+	// positional-based methods related to the subtree size field
+	/** Returns the number of nodes in the subtree rooted at p (0 if p is null). */
+	public int getSize(Position<Entry<K, V>> p) {
+		if (p == null) return 0;
+		return ((BSTNode<Entry<K, V>>) p).getSize();
+	}
+
+	/** Recomputes the subtree size of p from the sizes of its children. */
+	private void recomputeSize(Node<Entry<K, V>> node) {
+		((BSTNode<Entry<K, V>>) node).setSize(1 + getSize(node.getLeft()) + getSize(node.getRight()));
+	}
+
+	/** Adds delta to the subtree size of every node from the given one up to the root. */
+	private void adjustSizes(Node<Entry<K, V>> node, int delta) {
+		for (; node != null; node = node.getParent()) {
+			BSTNode<Entry<K, V>> n = (BSTNode<Entry<K, V>>) node;
+			n.setSize(n.getSize() + delta);
+		}
+	}
+
+	// Override update methods so that subtree sizes stay current
+	@Override
+	public Position<Entry<K, V>> addLeft(Position<Entry<K, V>> p, Entry<K, V> e) throws IllegalArgumentException {
+		Position<Entry<K, V>> child = super.addLeft(p, e);
+		adjustSizes((Node<Entry<K, V>>) p, 1);
+		return child;
+	}
+
+	@Override
+	public Position<Entry<K, V>> addRight(Position<Entry<K, V>> p, Entry<K, V> e) throws IllegalArgumentException {
+		Position<Entry<K, V>> child = super.addRight(p, e);
+		adjustSizes((Node<Entry<K, V>>) p, 1);
+		return child;
+	}
+
+	@Override
+	public Entry<K, V> remove(Position<Entry<K, V>> p) throws IllegalArgumentException {
+		Node<Entry<K, V>> parent = ((Node<Entry<K, V>>) p).getParent();
+		Entry<K, V> old = super.remove(p);
+		adjustSizes(parent, -1);
+		return old;
+	}
+
 	// Override node factory function to produce a BSTNode (rather than a Node)
 	@Override
 	protected Node<Entry<K, V>> createNode(Entry<K, V> e, Node<Entry<K, V>> parent, Node<Entry<K, V>> left,
@@ -37,9 +89,9 @@ public class BalanceableBinaryTree<K, V> extends LinkedBinaryTree<Entry<K, V>> {
 	/** Relinks a parent node with its oriented child node. */
 	private void relink(Node<Entry<K, V>> parent, Node<Entry<K, V>> child, boolean makeLeftChild) {
 		if (makeLeftChild) {
-			parent.setRight(child);
-		} else {
 			parent.setLeft(child);
+		} else {
+			parent.setRight(child);
 		}
 		child.setParent(parent);
 	}
@@ -81,6 +133,9 @@ public class BalanceableBinaryTree<K, V> extends LinkedBinaryTree<Entry<K, V>> {
 			relink(parent, t1, false);
 			relink(node, parent, true);
 		}
+
+		recomputeSize(parent); // parent is now node's child, so fix it first
+		recomputeSize(node);
 	}
 
 	/**
@@ -0,0 +1,15 @@
+/*
+ * Helpers shared by the benchmark main methods of the data structures.
+ */
+
+final class Benchmarks {
+	private Benchmarks() {
+	}
+
+	/** Rough estimate of the heap currently in use (for benchmarking only). */
+	static long usedMemory() {
+		Runtime rt = Runtime.getRuntime();
+		for (int i = 0; i < 3; ++i) System.gc();
+		return rt.totalMemory() - rt.freeMemory();
+	}
+}
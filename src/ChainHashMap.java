@@ -1,4 +1,7 @@
-import java.util.ArrayList;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /*
  * Map implementation using hash table with separate chaining.
@@ -7,6 +10,8 @@ import java.util.ArrayList;
 public class ChainHashMap<K, V> extends AbstractHashMap<K, V> {
 	// a fixed capacity array of UnsortedTableMap that serve as buckets
 	private UnsortedTableMap<K, V>[] table; // initialized within createTable
+	// the previous table, while an incremental rehash drains it (null otherwise)
+	private UnsortedTableMap<K, V>[] retired;
 
 	/** Creates a hash table with capacity 17 and prime factor 109345121. */
 	public ChainHashMap() {
@@ -23,14 +28,14 @@ public class ChainHashMap<K, V> extends AbstractHashMap<K, V> {
 		super(cap, p);
 	}
 
-	/** Creates an empty table having length equal to current capacity. */
+	/**
+	 * Creates an empty table having length equal to current capacity. Buckets
+	 * are created lazily by bucketPut, so this does not touch every slot.
+	 */
 	@Override
 	@SuppressWarnings({ "unchecked" })
 	protected void createTable() {
 		table = (UnsortedTableMap<K,V>[]) new UnsortedTableMap[capacity];
-		for (int i = 0; i < capacity; ++i) {
-			table[i] = new UnsortedTableMap<>();
-		}
 	}
 
 	/**
@@ -43,7 +48,9 @@ public class ChainHashMap<K, V> extends AbstractHashMap<K, V> {
 	 */
 	@Override
 	protected V bucketGet(int h, K k) {
-		return table[h].get(k);
+		UnsortedTableMap<K, V> bucket = table[h];
+		if (bucket == null) return null;
+		return bucket.get(k);
 	}
 
 	/**
@@ -59,6 +66,7 @@ public class ChainHashMap<K, V> extends AbstractHashMap<K, V> {
 	protected V bucketPut(int h, K k, V v) {
 		V e = bucketGet(h, k);
 		if (e == null) {
+			if (table[h] == null) table[h] = new UnsortedTableMap<>();
 			table[h].put(k, v);
 			size++;
 		}
@@ -83,22 +91,102 @@ public class ChainHashMap<K, V> extends AbstractHashMap<K, V> {
 		return e;
 	}
 
+	/** Sets the current table aside while an incremental rehash drains it. */
+	@Override
+	protected void retireTable() {
+		retired = table;
+	}
+
 	/**
-	 * Returns an iterable collection of all key-value entries of the map.
+	 * Detaches bucket j of the retired table and returns its entries.
 	 *
-	 * @return iterable collection of the map's entries
+	 * @param j index of a bucket of the retired table
+	 * @return the entries of that bucket (empty if already drained)
 	 */
 	@Override
-	public Iterable<Entry<K, V>> entrySet() {
-		ArrayList<Entry<K, V>> entries = new ArrayList<>();
-		for (int i = 0; i < capacity; ++i) {
-			for (Entry<K, V> e : table[i].entrySet()) {
-				entries.add(e);
+	protected Iterable<Entry<K, V>> drainBucket(int j) {
+		UnsortedTableMap<K, V> bucket = retired[j];
+		if (bucket == null) return Collections.emptyList();
+		retired[j] = null;
+		return bucket.entrySet();
+	}
+
+	/** Discards the retired table once every bucket has been drained. */
+	@Override
+	protected void releaseRetiredTable() {
+		retired = null;
+	}
+
+	// ---------------- nested EntryIterator class ----------------
+	/**
+	 * Walks the bucket array in place, so iteration needs no snapshot of the
+	 * entries. Fails fast if the map is structurally modified other than through
+	 * the iterator's own remove().
+	 */
+	private class EntryIterator implements Iterator<Entry<K, V>> {
+		private int bucket = 0; // bucket holding the next entry
+		private int j = 0; // index of the next entry within that bucket
+		private int lastBucket = -1; // bucket of the entry last returned (-1 if none)
+		private int lastIndex; // index of that entry within its bucket
+		private int expectedModCount;
+
+		EntryIterator() {
+			finishRehash(); // walk a single table
+			expectedModCount = modCount;
+			advance();
+		}
+
+		/** Moves (bucket, j) forward to the next existing entry, if any. */
+		private void advance() {
+			while (bucket < capacity && (table[bucket] == null || j >= table[bucket].size())) {
+				bucket++;
+				j = 0;
 			}
 		}
-		return entries;
+
+		public boolean hasNext() {
+			return bucket < capacity;
+		}
+
+		public Entry<K, V> next() {
+			if (modCount != expectedModCount) throw new ConcurrentModificationException();
+			if (!hasNext()) throw new NoSuchElementException("No further entries");
+			lastBucket = bucket;
+			lastIndex = j;
+			Entry<K, V> e = table[bucket].entryAt(j++);
+			advance();
+			return e;
+		}
+
+		public void remove() {
+			if (lastBucket == -1) throw new IllegalStateException("nothing to remove");
+			if (modCount != expectedModCount) throw new ConcurrentModificationException();
+			table[lastBucket].removeAt(lastIndex);
+			if (lastBucket == bucket) j--; // later entries of the bucket shifted down
+			size--;
+			expectedModCount = ++modCount;
+			lastBucket = -1;
+		}
+	} // ----------- end of nested EntryIterator class -----------
+
+	// ---------------- nested EntryIterable class ----------------
+	private class EntryIterable implements Iterable<Entry<K, V>> {
+		public Iterator<Entry<K, V>> iterator() {
+			return new EntryIterator();
+		}
+	} // ----------- end of nested EntryIterable class -----------
+
+	/**
+	 * Returns an iterable collection of all key-value entries of the map. The
+	 * entries are produced lazily, directly from the bucket array.
+	 *
+	 * @return iterable collection of the map's entries
+	 */
+	@Override
+	public Iterable<Entry<K, V>> entrySet() {
+		return new EntryIterable();
 	}
-	
+
 	public static void main(String[] args) {
 		//HashMap<Integer, String> m = new HashMap<Integer, String>();
 		ChainHashMap<Integer, String> m = new ChainHashMap<Integer, String>();
@@ -111,5 +199,30 @@ public class ChainHashMap<K, V> extends AbstractHashMap<K, V> {
 		
 		m.remove(11);
 		System.out.println("m: " + m);
+
+		// per-put latency percentiles, resizing all at once vs. incrementally
+		int n = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+		for (int round = 0; round < 2; ++round) {
+			putLatencies("stop-the-world", new ChainHashMap<>(), n);
+			ChainHashMap<Integer, Integer> inc = new ChainHashMap<>();
+			inc.setIncrementalRehash(8);
+			putLatencies("incremental(8)", inc, n);
+		}
+	}
+
+	/**
+	 * Prints latency percentiles of n consecutive puts (for benchmarking only).
+	 * The max also includes collector pauses, so run with a large heap.
+	 */
+	private static void putLatencies(String name, ChainHashMap<Integer, Integer> m, int n) {
+		long[] lat = new long[n];
+		for (int i = 0; i < n; ++i) {
+			long start = System.nanoTime();
+			m.put(i, i);
+			lat[i] = System.nanoTime() - start;
+		}
+		java.util.Arrays.sort(lat);
+		System.out.printf("%-15s p50 %6d ns  p99 %6d ns  p99.99 %9d ns  max %11d ns%n", name, lat[n / 2],
+				lat[(int) (n * 0.99)], lat[(int) (n * 0.9999)], lat[n - 1]);
 	}
 }
@@ -1,6 +1,8 @@
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 
 import org.junit.jupiter.api.Test;
 
@@ -94,4 +96,75 @@ class ChainHashMapTest {
 		assertEquals("[0, 1, 2, 3, 4, 5, 6, 7, 8, 9]", buf.toString());
 	}
 
+	@Test
+	void testIncrementalRehash() {
+		ChainHashMap<Integer, Integer> map = new ChainHashMap<Integer, Integer>();
+		map.setIncrementalRehash(2);
+
+		int n = 5000;
+		boolean sawRehash = false;
+		for(int i = 0; i < n; ++i) {
+			map.put(i, i);
+			sawRehash |= map.isRehashing();
+			if (i % 7 == 0) assertEquals(i / 2, map.get(i / 2));
+		}
+		assertTrue(sawRehash);
+		for(int i = 0; i < n; i += 3) {
+			assertEquals(i, map.remove(i));
+		}
+		int count = 0;
+		for(Integer k : map.keySet()) count++;
+		assertEquals(map.size(), count);
+		for(int i = 0; i < n; ++i) {
+			assertEquals(i % 3 == 0 ? null : i, map.get(i));
+		}
+	}
+
+	@Test
+	void testIncrementalRehashIsBounded() {
+		ChainHashMap<Integer, Integer> map = new ChainHashMap<Integer, Integer>();
+		map.setIncrementalRehash(1);
+
+		int n = 300000;
+		long most = 0;
+		for(int i = 0; i < n; ++i) {
+			long before = map.bucketsMigrated();
+			map.put(i, i);
+			most = Math.max(most, map.bucketsMigrated() - before);
+		}
+		assertTrue(most <= 4, "buckets migrated by one put: " + most);
+		assertEquals(n, map.size());
+		for(int i = 0; i < n; i += 997) assertEquals(i, map.get(i));
+	}
+
+	@Test
+	void testIteratorRemove() {
+		ChainHashMap<Integer, Integer> map = new ChainHashMap<Integer, Integer>();
+
+		int n = 100;
+		for(int i = 0; i < n; ++i) {
+			map.put(i, i);
+		}
+		for(Iterator<Entry<Integer, Integer>> it = map.entrySet().iterator(); it.hasNext(); ) {
+			if (it.next().getKey() % 2 == 0) it.remove();
+		}
+		assertEquals(n / 2, map.size());
+		ArrayList<Integer> buf = new ArrayList<>();
+		for(Integer k : map.keySet()) buf.add(k);
+		assertEquals(n / 2, buf.size());
+		for(Integer k : buf) assertTrue(k % 2 == 1);
+	}
+
+	@Test
+	void testIteratorFailFast() {
+		ChainHashMap<Integer, Integer> map = new ChainHashMap<Integer, Integer>();
+
+		map.put(1, 1);
+		map.put(2, 2);
+		Iterator<Integer> it = map.keySet().iterator();
+		it.next();
+		map.put(3, 3);
+		assertThrows(ConcurrentModificationException.class, () -> it.next());
+	}
+
 }
@@ -0,0 +1,264 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Deque stored in a circular array whose length is a power of two, so that
+ * indices wrap with a bit mask rather than a modulus. Both ends are O(1)
+ * (amortized, since the array doubles when full), as are first(), last() and
+ * get(i). Named so as not to be confused with java.util.ArrayDeque.
+ */
+public class CircularArrayDeque<E> implements Deque<E>, Iterable<E> {
+	private Object[] arr;
+	private int head;    // index of the first element
+	private int size;
+
+	/** Creates an empty deque with initial capacity 16. */
+	public CircularArrayDeque() {
+		this(16);
+	}
+
+	/**
+	 * Creates an empty deque that holds at least the given number of elements
+	 * before growing (rounded up to a power of two).
+	 */
+	public CircularArrayDeque(int capacity) {
+		if (capacity < 1 || capacity > 1 << 30) throw new IllegalArgumentException("Illegal capacity");
+		int cap = Integer.highestOneBit(capacity);
+		if (cap < capacity) cap <<= 1;
+		arr = new Object[cap];
+	}
+
+	/** Returns the array index of the element at the given position. */
+	private int index(int i) {
+		return (head + i) & (arr.length - 1);
+	}
+
+	/** Grows the array to the smallest power of two holding at least minCapacity elements. */
+	private void ensureCapacity(int minCapacity) {
+		if (minCapacity <= arr.length) return;
+		if (minCapacity > 1 << 30) throw new IllegalStateException("Deque too large");
+		int cap = arr.length;
+		while (cap < minCapacity) cap <<= 1;
+		Object[] other = new Object[cap];
+		int firstPart = Math.min(size, arr.length - head);    // from head up to the end of the array
+		System.arraycopy(arr, head, other, 0, firstPart);
+		System.arraycopy(arr, 0, other, firstPart, size - firstPart);  // the part that wrapped around
+		arr = other;
+		head = 0;
+	}
+
+	/** Returns the current length of the underlying array. */
+	public int capacity() {
+		return arr.length;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns (but does not remove) the element at the given position, counting
+	 * from the front.
+	 *
+	 * @throws IndexOutOfBoundsException if i is not in [0, size)
+	 */
+	@SuppressWarnings({"unchecked"})
+	public E get(int i) {
+		if (i < 0 || i >= size) throw new IndexOutOfBoundsException("Invalid index: " + i);
+		return (E) arr[index(i)];
+	}
+
+	@Override
+	@SuppressWarnings({"unchecked"})
+	public E first() {
+		if (isEmpty()) return null;
+		return (E) arr[head];
+	}
+
+	@Override
+	@SuppressWarnings({"unchecked"})
+	public E last() {
+		if (isEmpty()) return null;
+		return (E) arr[index(size - 1)];
+	}
+
+	@Override
+	public void addFirst(E e) {
+		ensureCapacity(size + 1);
+		head = (head - 1) & (arr.length - 1);
+		arr[head] = e;
+		size++;
+	}
+
+	@Override
+	public void addLast(E e) {
+		ensureCapacity(size + 1);
+		arr[index(size)] = e;
+		size++;
+	}
+
+	@Override
+	@SuppressWarnings({"unchecked"})
+	public E removeFirst() {
+		if (isEmpty()) return null;
+		E e = (E) arr[head];
+		arr[head] = null;   // help garbage collection
+		head = (head + 1) & (arr.length - 1);
+		size--;
+		return e;
+	}
+
+	@Override
+	@SuppressWarnings({"unchecked"})
+	public E removeLast() {
+		if (isEmpty()) return null;
+		int j = index(size - 1);
+		E e = (E) arr[j];
+		arr[j] = null;
+		size--;
+		return e;
+	}
+
+	/**
+	 * Appends the elements of the given array at the back of the deque, in
+	 * order, growing the array at most once.
+	 */
+	public void addAll(E[] elements) {
+		int n = elements.length;
+		ensureCapacity(size + n);
+		int tail = index(size);
+		int firstPart = Math.min(n, arr.length - tail);
+		System.arraycopy(elements, 0, arr, tail, firstPart);
+		System.arraycopy(elements, firstPart, arr, 0, n - firstPart);
+		size += n;
+	}
+
+	/**
+	 * Appends the given elements at the back of the deque, in order. Adding a
+	 * deque to itself appends one copy of its current contents.
+	 */
+	public void addAll(Iterable<? extends E> elements) {
+		if (elements == this) {
+			int n = size;                // the iterator would see the new elements
+			ensureCapacity(2 * n);
+			for (int i = 0; i < n; ++i) addLast(get(i));
+			return;
+		}
+		for (E e : elements) addLast(e);
+	}
+
+	/**
+	 * Discards up to n elements from the front of the deque in one step, as when
+	 * sliding a window forward.
+	 *
+	 * @return the number of elements removed
+	 */
+	public int removeFirst(int n) {
+		if (n < 0) throw new IllegalArgumentException("Negative count");
+		n = Math.min(n, size);
+		int firstPart = Math.min(n, arr.length - head);
+		java.util.Arrays.fill(arr, head, head + firstPart, null);
+		java.util.Arrays.fill(arr, 0, n - firstPart, null);
+		head = (head + n) & (arr.length - 1);
+		size -= n;
+		return n;
+	}
+
+	/** Removes all elements, keeping the current capacity. */
+	public void clear() {
+		removeFirst(size);
+		head = 0;
+	}
+
+	/** Returns an iterator over the elements from front to back. */
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+			private int i = 0;
+
+			public boolean hasNext() {
+				return i < size;
+			}
+
+			public E next() {
+				if (!hasNext()) throw new NoSuchElementException("No further elements");
+				return get(i++);
+			}
+		};
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < size; ++i) {
+			if (i > 0) sb.append(", ");
+			sb.append(arr[index(i)]);
+		}
+		return sb.append("]").toString();
+	}
+
+	// remainder of class is a simple benchmark
+
+	/**
+	 * Slides a window over n sequence numbers: each is appended at the back,
+	 * the back is peeked, and the front is dropped once the window exceeds w.
+	 */
+	private static long slideWindow(Deque<Integer> d, int n, int w) {
+		long sum = 0;
+		for (int seq = 0; seq < n; ++seq) {
+			d.addLast(seq);
+			sum += d.last();
+			if (d.size() > w) sum -= d.removeFirst();
+		}
+		while (!d.isEmpty()) sum += d.removeLast();
+		return sum;
+	}
+
+	/** The same workload on java.util.ArrayDeque, which does not implement our Deque. */
+	private static long slideWindow(java.util.ArrayDeque<Integer> d, int n, int w) {
+		long sum = 0;
+		for (int seq = 0; seq < n; ++seq) {
+			d.addLast(seq);
+			sum += d.getLast();
+			if (d.size() > w) sum -= d.removeFirst();
+		}
+		while (!d.isEmpty()) sum += d.removeLast();
+		return sum;
+	}
+
+	public static void main(String[] args) {
+		CircularArrayDeque<Integer> d = new CircularArrayDeque<Integer>(2);
+		d.addFirst(1);
+		d.addLast(2);
+		d.addLast(3);
+		d.addFirst(0);
+		System.out.println(d.last());
+		System.out.println(d.first());
+		System.out.println(d);
+
+		int n = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+		System.out.println("window  LinkedDeque  CircularArrayDeque  java.util.ArrayDeque  (ns/op)");
+		for (int w : new int[] {16, 256, 4096}) {
+			for (int round = 0; round < 3; ++round) {
+				long start = System.nanoTime();
+				long a = slideWindow(new LinkedDeque<>(), n, w);
+				long linked = System.nanoTime() - start;
+				start = System.nanoTime();
+				long b = slideWindow(new CircularArrayDeque<>(), n, w);
+				long circular = System.nanoTime() - start;
+				start = System.nanoTime();
+				long c = slideWindow(new java.util.ArrayDeque<>(), n, w);
+				long jdk = System.nanoTime() - start;
+				if (a != b || b != c) throw new IllegalStateException("checksums differ");
+				System.out.printf("%6d  %11.1f  %18.1f  %20.1f%n", w, (double) linked / n, (double) circular / n,
+						(double) jdk / n);
+			}
+		}
+	}
+}
@@ -0,0 +1,83 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class CircularArrayDequeTest {
+
+	@Test
+	void testBothEnds() {
+		CircularArrayDeque<Integer> d = new CircularArrayDeque<>(2);
+		assertNull(d.first());
+		assertNull(d.removeLast());
+		d.addFirst(1);
+		d.addLast(2);
+		d.addLast(3);
+		d.addFirst(0);
+		assertEquals(4, d.capacity());
+		assertEquals(0, d.first());
+		assertEquals(3, d.last());
+		assertEquals("[0, 1, 2, 3]", d.toString());
+		assertEquals(3, d.removeLast());
+		assertEquals(0, d.removeFirst());
+		assertEquals(2, d.size());
+	}
+
+	@Test
+	void testGrowWhileWrapped() {
+		CircularArrayDeque<Integer> d = new CircularArrayDeque<>(4);
+		for(int i = 0; i < 3; ++i)
+			d.addLast(i);
+		d.addFirst(-1);  // wraps head to the end of the array
+		d.addFirst(-2);  // triggers a resize
+		assertEquals(8, d.capacity());
+		assertEquals("[-2, -1, 0, 1, 2]", d.toString());
+		assertEquals(2, d.get(4));
+		assertThrows(IndexOutOfBoundsException.class, () -> d.get(5));
+	}
+
+	@Test
+	void testBulkOperations() {
+		CircularArrayDeque<Integer> d = new CircularArrayDeque<>(8);
+		for(int i = 0; i < 6; ++i)
+			d.addLast(i);
+		assertEquals(5, d.removeFirst(5));
+		d.addAll(new Integer[] {6, 7, 8, 9, 10});  // wraps around the array end
+		assertEquals(8, d.capacity());
+		assertEquals("[5, 6, 7, 8, 9, 10]", d.toString());
+		d.addAll(java.util.List.of(11, 12, 13));
+		assertEquals(16, d.capacity());
+		assertEquals(4, d.removeFirst(4));
+		assertEquals(9, d.first());
+		assertEquals(5, d.removeFirst(100));
+		assertTrue(d.isEmpty());
+	}
+
+	@Test
+	void testAddAllToItself() {
+		CircularArrayDeque<Integer> d = new CircularArrayDeque<>(4);
+		for(int i = 0; i < 4; ++i)
+			d.addLast(i);
+		d.removeFirst(2);
+		d.addLast(4);  // wraps around the array end
+		d.addAll(d);
+		assertEquals("[2, 3, 4, 2, 3, 4]", d.toString());
+	}
+
+	@Test
+	void testRandomMix() {
+		CircularArrayDeque<Integer> d = new CircularArrayDeque<>(1);
+		java.util.ArrayDeque<Integer> expected = new java.util.ArrayDeque<>();
+		java.util.Random rnd = new java.util.Random(3);
+		for(int i = 0; i < 20000; ++i) {
+			switch (rnd.nextInt(4)) {
+				case 0: d.addFirst(i); expected.addFirst(i); break;
+				case 1: d.addLast(i); expected.addLast(i); break;
+				case 2: assertEquals(expected.pollFirst(), d.removeFirst()); break;
+				default: assertEquals(expected.pollLast(), d.removeLast());
+			}
+			assertEquals(expected.size(), d.size());
+			assertEquals(expected.peekLast(), d.last());
+		}
+	}
+
+}
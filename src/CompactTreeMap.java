@@ -0,0 +1,644 @@
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * An implementation of a sorted map using a red-black tree in compact node
+ * storage.
+ * <p>
+ * TreeMap keeps every entry in a separate MapEntry referenced from a tree
+ * position, and gives every internal position two sentinel leaves, so each
+ * entry costs three objects. Here each entry is a single node that stores its
+ * key and value inline and is itself the Entry handed to callers; empty
+ * subtrees are null children rather than sentinel nodes. The red-black rules
+ * are those of RBTreeMap, keeping the height below 2 log(n+1). Removal moves
+ * nodes rather than copying keys between them, so an entry returned earlier
+ * never changes its key.
+ */
+public class CompactTreeMap<K, V> extends AbstractSortedMap<K, V> {
+
+    //---------------- nested Node class ----------------
+    private static final class Node<K, V> implements Entry<K, V> {
+        final K key;
+        V value;
+        Node<K, V> left, right, parent;     // null where TreeMap would have a sentinel leaf
+        boolean red;
+
+        Node(K key, V value, Node<K, V> parent) {
+            this.key = key;
+            this.value = value;
+            this.parent = parent;
+        }
+
+        public K getKey() {
+            return key;
+        }
+
+        public V getValue() {
+            return value;
+        }
+
+        public String toString() {
+            return "<" + key + ", " + value + ">";
+        }
+    } //----------- end of nested Node class -----------
+
+    private Node<K, V> root = null;
+    private int size = 0;
+    private int modCount = 0;       // structural modifications, for fail-fast iterators
+
+    /**
+     * Constructs an empty map using the natural ordering of keys.
+     */
+    public CompactTreeMap() {
+        super();
+    }
+
+    /**
+     * Constructs an empty map using the given comparator to order keys.
+     *
+     * @param comp comparator defining the order of keys in the map
+     */
+    public CompactTreeMap(Comparator<K> comp) {
+        super(comp);
+    }
+
+    // private utilities
+
+    private static boolean isRed(Node<?, ?> node) {
+        return node != null && node.red;
+    }
+
+    private static boolean isBlack(Node<?, ?> node) {
+        return node == null || !node.red;
+    }
+
+    /** Returns the node holding the given key (or null if there is none). */
+    private Node<K, V> find(K key) {
+        Node<K, V> node = root;
+        while (node != null) {
+            int cmp = compare(key, node.key);
+            if (cmp == 0) return node;
+            node = (cmp < 0) ? node.left : node.right;
+        }
+        return null;
+    }
+
+    private static <K, V> Node<K, V> min(Node<K, V> node) {
+        while (node.left != null) node = node.left;
+        return node;
+    }
+
+    private static <K, V> Node<K, V> max(Node<K, V> node) {
+        while (node.right != null) node = node.right;
+        return node;
+    }
+
+    /** Returns the node with the next greater key (or null if node holds the greatest). */
+    private static <K, V> Node<K, V> successor(Node<K, V> node) {
+        if (node.right != null) return min(node.right);
+        Node<K, V> parent = node.parent;
+        while (parent != null && node == parent.right) {
+            node = parent;
+            parent = node.parent;
+        }
+        return parent;
+    }
+
+    /** Returns the node with the next smaller key (or null if node holds the least). */
+    private static <K, V> Node<K, V> predecessor(Node<K, V> node) {
+        if (node.left != null) return max(node.left);
+        Node<K, V> parent = node.parent;
+        while (parent != null && node == parent.left) {
+            node = parent;
+            parent = node.parent;
+        }
+        return parent;
+    }
+
+    /**
+     * Returns the node with the least key greater than (or, if inclusive, equal
+     * to) the given key, or null if there is none.
+     */
+    private Node<K, V> ceilingNode(K key, boolean inclusive) {
+        Node<K, V> node = root, best = null;
+        while (node != null) {
+            int cmp = compare(key, node.key);
+            if (cmp == 0 && inclusive) return node;
+            if (cmp < 0) {
+                best = node;                // candidate; look for a smaller one on the left
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the node with the greatest key less than (or, if inclusive, equal
+     * to) the given key, or null if there is none.
+     */
+    private Node<K, V> floorNode(K key, boolean inclusive) {
+        Node<K, V> node = root, best = null;
+        while (node != null) {
+            int cmp = compare(key, node.key);
+            if (cmp == 0 && inclusive) return node;
+            if (cmp > 0) {
+                best = node;                // candidate; look for a greater one on the right
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return best;
+    }
+
+    /** Puts node y in x's place as a child of x's parent. */
+    private void replaceChild(Node<K, V> x, Node<K, V> y) {
+        if (x.parent == null) root = y;
+        else if (x == x.parent.left) x.parent.left = y;
+        else x.parent.right = y;
+        if (y != null) y.parent = x.parent;
+    }
+
+    /** Rotates x's right child above x. */
+    private void rotateLeft(Node<K, V> x) {
+        Node<K, V> y = x.right;
+        x.right = y.left;
+        if (y.left != null) y.left.parent = x;
+        replaceChild(x, y);
+        y.left = x;
+        x.parent = y;
+    }
+
+    /** Rotates x's left child above x. */
+    private void rotateRight(Node<K, V> x) {
+        Node<K, V> y = x.left;
+        x.left = y.right;
+        if (y.right != null) y.right.parent = x;
+        replaceChild(x, y);
+        y.right = x;
+        x.parent = y;
+    }
+
+    /** Remedies a potential double-red violation above the new red node z. */
+    private void resolveRed(Node<K, V> z) {
+        while (z != root && z.parent.red) {
+            Node<K, V> parent = z.parent, grand = parent.parent;
+            Node<K, V> uncle = (parent == grand.left) ? grand.right : grand.left;
+            if (isRed(uncle)) {             // overfull 5-node: recolor and continue above
+                parent.red = false;
+                uncle.red = false;
+                grand.red = true;
+                z = grand;
+            } else {                        // misshapen 4-node: restructure
+                if (parent == grand.left) {
+                    if (z == parent.right) {
+                        rotateLeft(parent);
+                        parent = z;
+                    }
+                    rotateRight(grand);
+                } else {
+                    if (z == parent.left) {
+                        rotateRight(parent);
+                        parent = z;
+                    }
+                    rotateLeft(grand);
+                }
+                parent.red = false;
+                grand.red = true;
+                return;
+            }
+        }
+        root.red = false;
+    }
+
+    /**
+     * Remedies the black deficit of the (possibly empty) subtree x, a child of
+     * the given parent, after a black node was removed above it.
+     */
+    private void remedyDoubleBlack(Node<K, V> x, Node<K, V> parent) {
+        while (x != root && isBlack(x)) {
+            if (x == parent.left) {
+                Node<K, V> sib = parent.right;
+                if (sib.red) {              // make the sibling black by a rotation
+                    sib.red = false;
+                    parent.red = true;
+                    rotateLeft(parent);
+                    sib = parent.right;
+                }
+                if (isBlack(sib.left) && isBlack(sib.right)) {
+                    sib.red = true;         // recolor, pushing the deficit up
+                    x = parent;
+                    parent = x.parent;
+                } else {
+                    if (isBlack(sib.right)) {
+                        sib.left.red = false;
+                        sib.red = true;
+                        rotateRight(sib);
+                        sib = parent.right;
+                    }
+                    sib.red = parent.red;   // restructure, which removes the deficit
+                    parent.red = false;
+                    sib.right.red = false;
+                    rotateLeft(parent);
+                    x = root;
+                }
+            } else {
+                Node<K, V> sib = parent.left;
+                if (sib.red) {
+                    sib.red = false;
+                    parent.red = true;
+                    rotateRight(parent);
+                    sib = parent.left;
+                }
+                if (isBlack(sib.left) && isBlack(sib.right)) {
+                    sib.red = true;
+                    x = parent;
+                    parent = x.parent;
+                } else {
+                    if (isBlack(sib.left)) {
+                        sib.right.red = false;
+                        sib.red = true;
+                        rotateLeft(sib);
+                        sib = parent.left;
+                    }
+                    sib.red = parent.red;
+                    parent.red = false;
+                    sib.left.red = false;
+                    rotateRight(parent);
+                    x = root;
+                }
+            }
+        }
+        if (x != null) x.red = false;
+    }
+
+    /**
+     * Unlinks node z from the tree. A node with two children is replaced by its
+     * successor node, moved bodily into z's place.
+     */
+    private void delete(Node<K, V> z) {
+        Node<K, V> x, xParent;              // the subtree moved up, and its new parent
+        boolean removedRed = z.red;
+        if (z.left == null) {
+            x = z.right;
+            xParent = z.parent;
+            replaceChild(z, x);
+        } else if (z.right == null) {
+            x = z.left;
+            xParent = z.parent;
+            replaceChild(z, x);
+        } else {
+            Node<K, V> y = min(z.right);
+            removedRed = y.red;             // y leaves its own place
+            x = y.right;
+            if (y.parent == z) {
+                xParent = y;
+            } else {
+                xParent = y.parent;
+                replaceChild(y, x);
+                y.right = z.right;
+                y.right.parent = y;
+            }
+            replaceChild(z, y);
+            y.left = z.left;
+            y.left.parent = y;
+            y.red = z.red;
+        }
+        if (!removedRed) remedyDoubleBlack(x, xParent);
+        z.left = z.right = z.parent = null;
+        size--;
+        modCount++;
+    }
+
+    // public methods
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return number of entries in the map
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the value associated with the specified key, or null if no such entry
+     * exists.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the associated value, or null if no such entry exists
+     */
+    @Override
+    public V get(K key) throws IllegalArgumentException {
+        checkKey(key);
+        Node<K, V> node = find(key);
+        return (node == null) ? null : node.value;
+    }
+
+    /**
+     * Associates the given value with the given key. If an entry with the key was
+     * already in the map, this replaced the previous value with the new one and
+     * returns the old value. Otherwise, a new entry is added and null is returned.
+     *
+     * @param key   key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the key (or null, if no such
+     * entry)
+     */
+    @Override
+    public V put(K key, V value) throws IllegalArgumentException {
+        checkKey(key);
+        Node<K, V> parent = null, node = root;
+        int cmp = 0;
+        while (node != null) {
+            cmp = compare(key, node.key);
+            if (cmp == 0) {
+                V old = node.value;
+                node.value = value;
+                return old;
+            }
+            parent = node;
+            node = (cmp < 0) ? node.left : node.right;
+        }
+        Node<K, V> z = new Node<>(key, value, parent);
+        if (parent == null) root = z;
+        else if (cmp < 0) parent.left = z;
+        else parent.right = z;
+        z.red = true;                       // the new node is initially colored red
+        resolveRed(z);
+        size++;
+        modCount++;
+        return null;
+    }
+
+    /**
+     * Removes the entry with the specified key, if present, and returns its
+     * associated value. Otherwise does nothing and returns null.
+     *
+     * @param key the key whose entry is to be removed from the map
+     * @return the previous value associated with the removed key, or null if no
+     * such entry exists
+     */
+    @Override
+    public V remove(K key) throws IllegalArgumentException {
+        checkKey(key);
+        Node<K, V> node = find(key);
+        if (node == null) return null;
+        delete(node);
+        return node.value;
+    }
+
+    /**
+     * Returns the entry having the least key (or null if map is empty).
+     *
+     * @return entry with least key (or null if map is empty)
+     */
+    @Override
+    public Entry<K, V> firstEntry() {
+        return (root == null) ? null : min(root);
+    }
+
+    /**
+     * Returns the entry having the greatest key (or null if map is empty).
+     *
+     * @return entry with greatest key (or null if map is empty)
+     */
+    @Override
+    public Entry<K, V> lastEntry() {
+        return (root == null) ? null : max(root);
+    }
+
+    /**
+     * Returns the entry with least key greater than or equal to given key (or null
+     * if no such key exists).
+     *
+     * @return entry with least key greater than or equal to given (or null if no
+     * such entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    @Override
+    public Entry<K, V> ceilingEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        return ceilingNode(key, true);
+    }
+
+    /**
+     * Returns the entry with greatest key less than or equal to given key (or null
+     * if no such key exists).
+     *
+     * @return entry with greatest key less than or equal to given (or null if no
+     * such entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    @Override
+    public Entry<K, V> floorEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        return floorNode(key, true);
+    }
+
+    /**
+     * Returns the entry with greatest key strictly less than given key (or null if
+     * no such key exists).
+     *
+     * @return entry with greatest key strictly less than given (or null if no such
+     * entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    @Override
+    public Entry<K, V> lowerEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        return floorNode(key, false);
+    }
+
+    /**
+     * Returns the entry with least key strictly greater than given key (or null if
+     * no such key exists).
+     *
+     * @return entry with least key strictly greater than given (or null if no such
+     * entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    @Override
+    public Entry<K, V> higherEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        return ceilingNode(key, false);
+    }
+
+    // Support for iteration
+
+    //---------------- nested EntryIterator class ----------------
+
+    /**
+     * Walks the nodes in key order by following successor links from a starting
+     * node up to an optional exclusive end key, in O(1) extra space. Fails fast if
+     * the map is structurally modified other than through the iterator's own
+     * remove().
+     */
+    private class EntryIterator implements Iterator<Entry<K, V>> {
+        private Node<K, V> next;            // node holding the next entry (null when done)
+        private Node<K, V> last = null;     // node last returned (null if none)
+        private final K toKey;              // exclusive upper bound (null for none)
+        private int expectedModCount = modCount;
+
+        EntryIterator(K fromKey, K toKey) {
+            this.toKey = toKey;
+            if (fromKey == null) next = (root == null) ? null : min(root);
+            else next = ceilingNode(fromKey, true);
+            checkBound();
+        }
+
+        private void checkBound() {
+            if (next != null && toKey != null && compare(next.key, toKey) >= 0) next = null;
+        }
+
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        public Entry<K, V> next() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (next == null) throw new NoSuchElementException("No further entries");
+            last = next;
+            next = successor(next);
+            checkBound();
+            return last;
+        }
+
+        /**
+         * Removes the entry last returned. Since delete moves nodes rather than
+         * copying entries between them, the next node is unaffected.
+         */
+        public void remove() {
+            if (last == null) throw new IllegalStateException("nothing to remove");
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            delete(last);
+            expectedModCount = modCount;
+            last = null;
+        }
+    } //----------- end of nested EntryIterator class -----------
+
+    //---------------- nested EntryIterable class ----------------
+    private class EntryIterable implements Iterable<Entry<K, V>> {
+        private final K fromKey, toKey;
+
+        EntryIterable(K fromKey, K toKey) {
+            this.fromKey = fromKey;
+            this.toKey = toKey;
+        }
+
+        public Iterator<Entry<K, V>> iterator() {
+            return new EntryIterator(fromKey, toKey);
+        }
+
+        public String toString() {
+            StringBuilder sb = new StringBuilder("[");
+            for (Iterator<Entry<K, V>> iter = iterator(); iter.hasNext(); ) {
+                sb.append(iter.next());
+                if (iter.hasNext()) sb.append(", ");
+            }
+            return sb.append("]").toString();
+        }
+    } //----------- end of nested EntryIterable class -----------
+
+    /**
+     * Returns an iterable collection of all key-value entries of the map, produced
+     * lazily in key order.
+     *
+     * @return iterable collection of the map's entries
+     */
+    @Override
+    public Iterable<Entry<K, V>> entrySet() {
+        return new EntryIterable(null, null);
+    }
+
+    /**
+     * Returns an iterable containing all entries with keys in the range from
+     * <code>fromKey</code> inclusive to <code>toKey</code> exclusive, produced
+     * lazily in key order.
+     *
+     * @return iterable with keys in desired range
+     * @throws IllegalArgumentException if <code>fromKey</code> or
+     *                                  <code>toKey</code> is not compatible with
+     *                                  the map
+     */
+    @Override
+    public Iterable<Entry<K, V>> subMap(K fromKey, K toKey) throws IllegalArgumentException {
+        checkKey(fromKey);
+        checkKey(toKey);
+        return new EntryIterable(fromKey, toKey);
+    }
+
+    /**
+     * Returns the black height of the tree, or -1 if a red-black property fails
+     * anywhere (for testing only).
+     */
+    int blackHeight() {
+        if (isRed(root)) return -1;
+        int height = -1;
+        for (Node<K, V> node = (root == null) ? null : min(root); node != null; node = successor(node)) {
+            if (node.red && (isRed(node.left) || isRed(node.right))) return -1;
+            if (node.left == null || node.right == null) {  // count black nodes up from an empty subtree
+                int h = 0;
+                for (Node<K, V> p = node; p != null; p = p.parent)
+                    if (!p.red) h++;
+                if (height == -1) height = h;
+                else if (h != height) return -1;
+            }
+        }
+        return Math.max(height, 0);
+    }
+
+    // remainder of class is a simple footprint benchmark
+
+    /**
+     * Fills the map with the given (already boxed) keys, then reports heap per
+     * entry, excluding the keys themselves, and random lookup latency.
+     */
+    private static void footprint(String name, SortedMap<Integer, Integer> m, Integer[] keys, Integer[] probes) {
+        long before = Benchmarks.usedMemory();
+        long start = System.nanoTime();
+        for (Integer k : keys) m.put(k, k);
+        long put = System.nanoTime() - start;
+        long bytes = Benchmarks.usedMemory() - before;
+        start = System.nanoTime();
+        long sum = 0;
+        for (Integer k : probes) sum += m.get(k);
+        long get = System.nanoTime() - start;
+        System.out.printf("%-15s %,11d entries: %6.1f bytes/entry, put %6.1f ns/op, get %6.1f ns/op (%d)%n", name,
+                keys.length, (double) bytes / keys.length, (double) put / keys.length,
+                (double) get / probes.length, sum);
+    }
+
+    public static void main(String[] args) {
+        CompactTreeMap<Integer, String> map = new CompactTreeMap<>();
+        for (int i : new int[]{44, 17, 88, 8, 32, 65, 97, 28, 54, 82, 93, 21, 29, 76, 80})
+            map.put(i, Integer.toString(i));
+        System.out.println("entries: " + map.entrySet());
+        System.out.println("subMap(20, 60): " + map.subMap(20, 60));
+
+        // 10M entries need about -Xmx4g for the sentinel-based maps
+        int[] sizes = args.length > 0 ? new int[]{Integer.parseInt(args[0])} : new int[]{1_000_000, 10_000_000};
+        for (int n : sizes) {
+            Random rnd = new Random(1);
+            Integer[] keys = new Integer[n];
+            for (int i = 0; i < n; ++i) keys[i] = i;
+            for (int i = n - 1; i > 0; --i) {   // shuffle, so the unbalanced TreeMap stays shallow
+                int j = rnd.nextInt(i + 1);
+                Integer t = keys[i];
+                keys[i] = keys[j];
+                keys[j] = t;
+            }
+            Integer[] probes = new Integer[1_000_000];
+            for (int i = 0; i < probes.length; ++i) probes[i] = keys[rnd.nextInt(n)];
+            footprint("TreeMap", new TreeMap<>(), keys, probes);
+            footprint("RBTreeMap", new RBTreeMap<>(), keys, probes);
+            footprint("CompactTreeMap", new CompactTreeMap<>(), keys, probes);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+
+import org.junit.jupiter.api.Test;
+
+class CompactTreeMapTest {
+
+	private static CompactTreeMap<Integer, String> sample() {
+		CompactTreeMap<Integer, String> map = new CompactTreeMap<>();
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+		return map;
+	}
+
+	@Test
+	void testGetPutRemove() {
+		CompactTreeMap<Integer, String> map = sample();
+		assertEquals(12, map.size());
+		assertEquals("15", map.get(15));
+		assertEquals(null, map.get(-1));
+		assertEquals("24", map.put(24, "twenty-four"));
+		assertEquals("twenty-four", map.get(24));
+		assertEquals("26", map.remove(26));
+		assertEquals(null, map.remove(26));
+		assertEquals(11, map.size());
+		assertEquals("[1, 2, 4, 5, 12, 15, 21, 23, 24, 33, 35]", map.keySet().toString());
+	}
+
+	@Test
+	void testNavigation() {
+		CompactTreeMap<Integer, String> map = sample();
+		assertEquals(1, map.firstEntry().getKey());
+		assertEquals(35, map.lastEntry().getKey());
+		assertEquals(12, map.ceilingEntry(11).getKey());
+		assertEquals(2, map.ceilingEntry(2).getKey());
+		assertEquals(null, map.ceilingEntry(36));
+		assertEquals(5, map.floorEntry(11).getKey());
+		assertEquals(5, map.floorEntry(5).getKey());
+		assertEquals(null, map.floorEntry(0));
+		assertEquals(23, map.lowerEntry(24).getKey());
+		assertEquals(null, map.lowerEntry(1));
+		assertEquals(12, map.higherEntry(11).getKey());
+		assertEquals(null, map.higherEntry(35));
+		assertEquals(null, new CompactTreeMap<Integer, String>().firstEntry());
+	}
+
+	@Test
+	void testSubMap() {
+		CompactTreeMap<Integer, String> map = sample();
+		assertEquals("[<12, 12>, <15, 15>, <21, 21>, <23, 23>, <24, 24>, <26, 26>, <33, 33>]", map.subMap(12, 34).toString());
+		assertEquals("[]", map.subMap(6, 12).toString());
+	}
+
+	@Test
+	void testIteratorRemove() {
+		CompactTreeMap<Integer, Integer> map = new CompactTreeMap<>();
+		for(int i = 0; i < 1000; ++i)
+			map.put(i, i);
+		Entry<Integer, Integer> kept = map.ceilingEntry(501);
+		for(Iterator<Entry<Integer, Integer>> it = map.entrySet().iterator(); it.hasNext(); ) {
+			if (it.next().getKey() % 2 == 0) it.remove();
+		}
+		assertEquals(500, map.size());
+		assertEquals(1, map.firstEntry().getKey());
+		assertEquals(501, kept.getKey());  // entries are never rewritten by removals
+		assertTrue(map.blackHeight() > 0);
+
+		Iterator<Entry<Integer, Integer>> it = map.entrySet().iterator();
+		map.remove(1);
+		assertThrows(ConcurrentModificationException.class, () -> it.next());
+	}
+
+	@Test
+	void testRandomMix() {
+		CompactTreeMap<Integer, Integer> map = new CompactTreeMap<>();
+		java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+		java.util.Random rnd = new java.util.Random(11);
+
+		for(int i = 0; i < 20000; ++i) {
+			int k = rnd.nextInt(2000);
+			if (rnd.nextBoolean()) assertEquals(expected.put(k, i), map.put(k, i));
+			else assertEquals(expected.remove(k), map.remove(k));
+			if (i % 1000 == 0) assertTrue(map.blackHeight() >= 0);
+			int probe = rnd.nextInt(2100) - 50;
+			java.util.Map.Entry<Integer, Integer> e = expected.lowerEntry(probe);
+			assertEquals(e == null ? null : e.getKey(), map.lowerEntry(probe) == null ? null : map.lowerEntry(probe).getKey());
+			e = expected.ceilingEntry(probe);
+			assertEquals(e == null ? null : e.getKey(), map.ceilingEntry(probe) == null ? null : map.ceilingEntry(probe).getKey());
+		}
+		assertEquals(expected.size(), map.size());
+		assertEquals(expected.keySet().toString(), map.keySet().toString());
+	}
+
+	@Test
+	void testAscendingInsertStaysBalanced() {
+		CompactTreeMap<Integer, Integer> map = new CompactTreeMap<>();
+		int n = 100000;
+		for(int i = 0; i < n; ++i)
+			map.put(i, i);
+		// black height of a red-black tree with n entries is at most log2(n + 1)
+		int bh = map.blackHeight();
+		assertTrue(bh > 0 && bh <= (int) (Math.log(n + 1) / Math.log(2)));
+		for(int i = 0; i < n; i += 2)
+			map.remove(i);
+		assertTrue(map.blackHeight() > 0);
+		assertEquals(n / 2, map.size());
+	}
+
+}
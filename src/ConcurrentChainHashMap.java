@@ -0,0 +1,317 @@
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * Thread-safe map implementation using a hash table with separate chaining,
+ * split into independently locked segments (lock striping).
+ *
+ * Writers lock only the segment their key hashes to, so updates to different
+ * segments proceed in parallel. Readers never lock: chains are built from
+ * nodes whose key and next pointer never change after publication, bucket
+ * heads are written and read with volatile semantics through an
+ * AtomicReferenceArray, and each segment publishes a resized table through a
+ * volatile field. Every segment resizes on its own, and size() sums the
+ * per-segment counters. Null keys and values are not permitted, since null is
+ * how a missing key is reported.
+ */
+
+public class ConcurrentChainHashMap<K, V> extends AbstractMap<K, V> {
+	// ---------------- nested Node class ----------------
+	/** An immutable link of a bucket chain; only the value may be replaced. */
+	private static class Node<K, V> {
+		final int hash;
+		final K key;
+		volatile V value;
+		final Node<K, V> next;
+
+		Node(int hash, K key, V value, Node<K, V> next) {
+			this.hash = hash;
+			this.key = key;
+			this.value = value;
+			this.next = next;
+		}
+	} // ----------- end of nested Node class -----------
+
+	// ---------------- nested Segment class ----------------
+	/** An independently locked hash table holding a share of the entries. */
+	private static class Segment<K, V> extends ReentrantLock {
+		private static final long serialVersionUID = 1L;
+
+		volatile AtomicReferenceArray<Node<K, V>> table; // replaced only by resize
+		volatile int count; // number of entries, written under the lock
+
+		Segment(int cap) {
+			table = newTable(cap);
+		}
+
+		static <K, V> AtomicReferenceArray<Node<K, V>> newTable(int cap) {
+			return new AtomicReferenceArray<>(cap);
+		}
+
+		/** Lock-free lookup of key k with spread hash h. */
+		V get(int h, K k) {
+			AtomicReferenceArray<Node<K, V>> tab = table;
+			for (Node<K, V> e = tab.get(index(h, tab.length())); e != null; e = e.next) {
+				if (e.hash == h && e.key.equals(k)) return e.value;
+			}
+			return null;
+		}
+
+		V put(int h, K k, V v) {
+			lock();
+			try {
+				AtomicReferenceArray<Node<K, V>> tab = table;
+				int i = index(h, tab.length());
+				for (Node<K, V> e = tab.get(i); e != null; e = e.next) {
+					if (e.hash == h && e.key.equals(k)) {
+						V old = e.value;
+						e.value = v;
+						return old;
+					}
+				}
+				tab.set(i, new Node<>(h, k, v, tab.get(i))); // volatile write publishes the new head
+				count = count + 1;
+				if (count > tab.length() / 2) resize(); // keep load factor <= 0.5
+				return null;
+			} finally {
+				unlock();
+			}
+		}
+
+		V remove(int h, K k) {
+			lock();
+			try {
+				AtomicReferenceArray<Node<K, V>> tab = table;
+				int i = index(h, tab.length());
+				Node<K, V> first = tab.get(i);
+				Node<K, V> e = first;
+				while (e != null && !(e.hash == h && e.key.equals(k))) e = e.next;
+				if (e == null) return null;
+				// nodes are immutable, so copy the prefix in front of e
+				Node<K, V> rest = e.next;
+				for (Node<K, V> p = first; p != e; p = p.next) {
+					rest = new Node<>(p.hash, p.key, p.value, rest);
+				}
+				tab.set(i, rest); // volatile write publishes the new chain
+				count = count - 1;
+				return e.value;
+			} finally {
+				unlock();
+			}
+		}
+
+		/** Doubles this segment's table; called with the lock held. */
+		private void resize() {
+			AtomicReferenceArray<Node<K, V>> old = table;
+			AtomicReferenceArray<Node<K, V>> tab = newTable(2 * old.length() + 1);
+			for (int j = 0; j < old.length(); ++j) {
+				for (Node<K, V> e = old.get(j); e != null; e = e.next) {
+					int i = index(e.hash, tab.length());
+					tab.set(i, new Node<>(e.hash, e.key, e.value, tab.get(i)));
+				}
+			}
+			table = tab; // volatile write publishes the new table
+		}
+
+		void collect(ArrayList<Entry<K, V>> entries) {
+			AtomicReferenceArray<Node<K, V>> tab = table;
+			for (int j = 0; j < tab.length(); ++j) {
+				for (Node<K, V> e = tab.get(j); e != null; e = e.next) {
+					entries.add(new MapEntry<>(e.key, e.value));
+				}
+			}
+		}
+	} // ----------- end of nested Segment class -----------
+
+	private final Segment<K, V>[] segments;
+	private final int prime; // prime factor
+	private final long scale, shift; // the shift and scaling factors
+
+	/** Creates a map with 16 segments of initial capacity 17 each. */
+	public ConcurrentChainHashMap() {
+		this(16, 17);
+	}
+
+	/**
+	 * Creates a map with the given number of segments (the expected number of
+	 * concurrent writers) and initial capacity per segment.
+	 */
+	public ConcurrentChainHashMap(int concurrency, int segmentCap) {
+		this(concurrency, segmentCap, 109345121);
+	}
+
+	/** Creates a map with the given number of segments, capacity and prime factor. */
+	@SuppressWarnings({ "unchecked" })
+	public ConcurrentChainHashMap(int concurrency, int segmentCap, int p) {
+		if (concurrency < 1 || segmentCap < 1) throw new IllegalArgumentException("Illegal capacity");
+		prime = p;
+		Random rand = new Random();
+		scale = rand.nextInt(prime - 1) + 1;
+		shift = rand.nextInt(prime);
+		segments = (Segment<K, V>[]) new Segment<?, ?>[concurrency];
+		for (int i = 0; i < concurrency; ++i) {
+			segments[i] = new Segment<>(segmentCap);
+		}
+	}
+
+	// private utilities
+
+	/** MAD compression of the key's hash code into [0, p), before the table modulus. */
+	private int spread(K key) {
+		return (int) (Math.abs(key.hashCode() * scale + shift) % prime);
+	}
+
+	private static int index(int h, int length) {
+		return h % length;
+	}
+
+	private Segment<K, V> segmentFor(int h) {
+		return segments[h % segments.length];
+	}
+
+	/** The part of the hash left for the bucket index once the segment is chosen. */
+	private int segmentHash(int h) {
+		return h / segments.length;
+	}
+
+	private static void checkNotNull(Object o) {
+		if (o == null) throw new NullPointerException();
+	}
+
+	// public methods
+
+	/**
+	 * Returns the number of entries in the map. The result is exact when no
+	 * update is in progress.
+	 *
+	 * @return number of entries in the map
+	 */
+	@Override
+	public int size() {
+		long sum = 0;
+		for (Segment<K, V> s : segments) sum += s.count;
+		return (int) Math.min(sum, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Returns the value associated with the specified key, or null if no such entry
+	 * exists. Never blocks.
+	 *
+	 * @param key the key whose associated value is to be returned
+	 * @return the associated value, or null if no such entry exists
+	 */
+	@Override
+	public V get(K key) {
+		checkNotNull(key);
+		int h = spread(key);
+		return segmentFor(h).get(segmentHash(h), key);
+	}
+
+	/**
+	 * Associates the given value with the given key. If an entry with the key was
+	 * already in the map, this replaced the previous value with the new one and
+	 * returns the old value. Otherwise, a new entry is added and null is returned.
+	 *
+	 * @param key   key with which the specified value is to be associated
+	 * @param value value to be associated with the specified key
+	 * @return the previous value associated with the key (or null, if no such
+	 *         entry)
+	 */
+	@Override
+	public V put(K key, V value) {
+		checkNotNull(key);
+		checkNotNull(value);
+		int h = spread(key);
+		return segmentFor(h).put(segmentHash(h), key, value);
+	}
+
+	/**
+	 * Removes the entry with the specified key, if present, and returns its
+	 * associated value. Otherwise does nothing and returns null.
+	 *
+	 * @param key the key whose entry is to be removed from the map
+	 * @return the previous value associated with the removed key, or null if no
+	 *         such entry exists
+	 */
+	@Override
+	public V remove(K key) {
+		checkNotNull(key);
+		int h = spread(key);
+		return segmentFor(h).remove(segmentHash(h), key);
+	}
+
+	/**
+	 * Returns an iterable collection of all key-value entries of the map. The
+	 * snapshot is taken segment by segment without locking, so it reflects each
+	 * segment's state at some point during the call.
+	 *
+	 * @return iterable collection of the map's entries
+	 */
+	@Override
+	public Iterable<Entry<K, V>> entrySet() {
+		ArrayList<Entry<K, V>> entries = new ArrayList<>(size());
+		for (Segment<K, V> s : segments) s.collect(entries);
+		return entries;
+	}
+
+	// remainder of class is a simple scalability benchmark
+
+	/** Runs a 90% get / 10% put mix on the given map from the given number of threads. */
+	private static double throughput(Map<Integer, Integer> m, int threads, int opsPerThread, int keyRange)
+			throws InterruptedException {
+		AtomicLong checksum = new AtomicLong();
+		Thread[] workers = new Thread[threads];
+		for (int t = 0; t < threads; ++t) {
+			final int seed = t;
+			workers[t] = new Thread(() -> {
+				Random rnd = new Random(seed);
+				long sum = 0;
+				for (int i = 0; i < opsPerThread; ++i) {
+					Integer k = rnd.nextInt(keyRange);
+					if (rnd.nextInt(10) == 0) m.put(k, i);
+					else {
+						Integer v = m.get(k);
+						if (v != null) sum += v;
+					}
+				}
+				checksum.addAndGet(sum);
+			});
+		}
+		long start = System.nanoTime();
+		for (Thread w : workers) w.start();
+		for (Thread w : workers) w.join();
+		long elapsed = System.nanoTime() - start;
+		return (double) threads * opsPerThread / elapsed * 1000; // million ops per second
+	}
+
+	/** Wraps a map so that every operation holds one global lock. */
+	private static <K, V> Map<K, V> globalLock(Map<K, V> m) {
+		return new AbstractMap<K, V>() {
+			public synchronized int size() { return m.size(); }
+			public synchronized V get(K key) { return m.get(key); }
+			public synchronized V put(K key, V value) { return m.put(key, value); }
+			public synchronized V remove(K key) { return m.remove(key); }
+			public synchronized Iterable<Entry<K, V>> entrySet() { return m.entrySet(); }
+		};
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+		int ops = 1_000_000;
+		int keyRange = 100_000;
+		System.out.println("threads  synchronized ChainHashMap  ConcurrentChainHashMap  (Mops/s)");
+		for (int t = 1; t <= maxThreads; t *= 2) {
+			Map<Integer, Integer> locked = globalLock(new ChainHashMap<>());
+			ConcurrentChainHashMap<Integer, Integer> striped = new ConcurrentChainHashMap<>(4 * maxThreads, 17);
+			for (int k = 0; k < keyRange; ++k) {
+				locked.put(k, k);
+				striped.put(k, k);
+			}
+			System.out.printf("%7d  %26.2f  %22.2f%n", t, throughput(locked, t, ops, keyRange),
+					throughput(striped, t, ops, keyRange));
+		}
+	}
+}
@@ -0,0 +1,73 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+class ConcurrentChainHashMapTest {
+
+	@Test
+	void testGetPutRemove() {
+		ConcurrentChainHashMap<String, Integer> map = new ConcurrentChainHashMap<>(4, 3);
+
+		int n = 1000;
+		for(int i = 0; i < n; ++i) {
+			assertEquals(null, map.put(Integer.toString(i), i));
+		}
+		assertEquals(n, map.size());
+		assertEquals(5, map.put("5", 55));
+		assertEquals(55, map.get("5"));
+		assertEquals(55, map.remove("5"));
+		assertEquals(null, map.get("5"));
+		assertEquals(null, map.remove("5"));
+		assertEquals(n - 1, map.size());
+		for(int i = 6; i < n; ++i) {
+			assertEquals(i, map.get(Integer.toString(i)));
+		}
+	}
+
+	@Test
+	void testNullRejected() {
+		ConcurrentChainHashMap<String, Integer> map = new ConcurrentChainHashMap<>();
+
+		assertThrows(NullPointerException.class, () -> map.put(null, 1));
+		assertThrows(NullPointerException.class, () -> map.put("one", null));
+	}
+
+	@Test
+	void testValues() {
+		ConcurrentChainHashMap<String, Integer> map = new ConcurrentChainHashMap<>();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(Integer.toString(i), i);
+		}
+		ArrayList<Integer> buf = new ArrayList<>();
+		for(Integer s : map.values()) buf.add(s);
+		buf.sort(new DefaultComparator<Integer>());
+		assertEquals("[0, 1, 2, 3, 4, 5, 6, 7, 8, 9]", buf.toString());
+	}
+
+	@Test
+	void testConcurrentPut() throws InterruptedException {
+		ConcurrentChainHashMap<Integer, Integer> map = new ConcurrentChainHashMap<>(8, 1);
+
+		int threads = 8;
+		int perThread = 5000;
+		Thread[] workers = new Thread[threads];
+		for(int t = 0; t < threads; ++t) {
+			final int base = t * perThread;
+			workers[t] = new Thread(() -> {
+				for(int i = 0; i < perThread; ++i) map.put(base + i, base + i);
+			});
+			workers[t].start();
+		}
+		for(Thread w : workers) w.join();
+
+		assertEquals(threads * perThread, map.size());
+		for(int i = 0; i < threads * perThread; ++i) {
+			assertEquals(i, map.get(i));
+		}
+	}
+
+}
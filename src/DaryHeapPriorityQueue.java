@@ -0,0 +1,220 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * An implementation of a priority queue using an array-based d-ary heap.
+ * <p>
+ * The children of the entry at index j sit at indices dj+1 through dj+d, so a
+ * wider fan-out gives a shallower tree and keeps each set of siblings next to
+ * one another in memory. Keys are kept in their own array, parallel to the
+ * entries, so comparisons need not go through the entry objects. Sifting moves
+ * a "hole" along the path and writes the moving entry once at the end, rather
+ * than swapping at every level.
+ */
+public class DaryHeapPriorityQueue<K, V> extends AbstractPriorityQueue<K, V> {
+    private final int d;                // number of children per node
+    private Object[] keys;              // keys[j] is the key of entries[j]
+    private PQEntry<K, V>[] entries;
+    private int size = 0;
+
+    /**
+     * Creates an empty 4-ary priority queue based on the natural ordering of its keys.
+     */
+    public DaryHeapPriorityQueue() {
+        this(4);
+    }
+
+    /**
+     * Creates an empty d-ary priority queue based on the natural ordering of its keys.
+     *
+     * @param d number of children per node (at least 2)
+     */
+    public DaryHeapPriorityQueue(int d) {
+        this(d, new DefaultComparator<K>());
+    }
+
+    /**
+     * Creates an empty d-ary priority queue using the given comparator to order keys.
+     *
+     * @param d    number of children per node (at least 2)
+     * @param comp comparator defining the order of keys in the priority queue
+     */
+    @SuppressWarnings({"unchecked"})
+    public DaryHeapPriorityQueue(int d, Comparator<K> comp) {
+        super(comp);
+        if (d < 2) throw new IllegalArgumentException("Fan-out must be at least 2");
+        this.d = d;
+        keys = new Object[16];
+        entries = (PQEntry<K, V>[]) new PQEntry<?, ?>[16];
+    }
+
+    // private utilities
+
+    @SuppressWarnings({"unchecked"})
+    private K key(int j) {
+        return (K) keys[j];
+    }
+
+    /**
+     * Doubles the capacity of the arrays.
+     */
+    private void grow() {
+        int cap = 2 * keys.length;
+        keys = Arrays.copyOf(keys, cap);
+        entries = Arrays.copyOf(entries, cap);
+    }
+
+    /**
+     * Places entry e, starting from the hole at index j, by moving parents with
+     * larger keys down into the hole until e's position is found.
+     */
+    private void siftUp(int j, PQEntry<K, V> e) {
+        K k = e.getKey();
+        while (j > 0) {
+            int p = (j - 1) / d;
+            if (compare(k, key(p)) >= 0) break;
+            keys[j] = keys[p];
+            entries[j] = entries[p];
+            j = p;
+        }
+        keys[j] = k;
+        entries[j] = e;
+    }
+
+    /**
+     * Places entry e, starting from the hole at index j, by moving the smallest
+     * child up into the hole until no child has a smaller key than e.
+     */
+    private void siftDown(int j, PQEntry<K, V> e) {
+        K k = e.getKey();
+        while (true) {
+            int first = d * j + 1;
+            if (first >= size) break;
+            int last = Math.min(first + d, size);
+            int best = first;
+            for (int c = first + 1; c < last; ++c) {
+                if (compare(key(c), key(best)) < 0) best = c;
+            }
+            if (compare(key(best), k) >= 0) break;
+            keys[j] = keys[best];
+            entries[j] = entries[best];
+            j = best;
+        }
+        keys[j] = k;
+        entries[j] = e;
+    }
+
+    // public methods
+
+    /**
+     * Returns the number of items in the priority queue.
+     *
+     * @return number of items
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns (but does not remove) an entry with minimal key.
+     *
+     * @return entry having a minimal key (or null if empty)
+     */
+    @Override
+    public Entry<K, V> min() {
+        if (size == 0) return null;
+        return entries[0];
+    }
+
+    /**
+     * Inserts a key-value pair and return the entry created.
+     *
+     * @param key   the key of the new entry
+     * @param value the associated value of the new entry
+     * @return the entry storing the new key-value pair
+     * @throws IllegalArgumentException if the key is unacceptable for this queue
+     */
+    @Override
+    public Entry<K, V> insert(K key, V value) throws IllegalArgumentException {
+        checkKey(key);
+        PQEntry<K, V> e = new PQEntry<>(key, value);
+        if (size == keys.length) grow();
+        siftUp(size++, e);
+        return e;
+    }
+
+    /**
+     * Removes and returns an entry with minimal key.
+     *
+     * @return the removed entry (or null if empty)
+     */
+    @Override
+    public Entry<K, V> removeMin() {
+        if (size == 0) return null;
+        PQEntry<K, V> top = entries[0];
+        PQEntry<K, V> last = entries[--size];
+        keys[size] = null;              // help garbage collection
+        entries[size] = null;
+        if (size > 0) siftDown(0, last);
+        return top;
+    }
+
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append('[');
+        for (int j = 0; j < size; ++j) {
+            sb.append(entries[j].getValue());
+            if (j < size - 1) sb.append(", ");
+        }
+        sb.append(']');
+        return sb.toString();
+    }
+
+    // remainder of class is a simple throughput benchmark
+
+    /**
+     * Reports millions of operations per second for n inserts followed by n
+     * removeMins, repeated until about ten million operations of each have run.
+     */
+    private static void throughput(String name, java.util.function.Supplier<PriorityQueue<Long, Long>> factory,
+                                   Long[] keys) {
+        int n = keys.length;
+        int reps = Math.max(1, 10_000_000 / n);
+        long insert = 0, remove = 0, sum = 0;
+        for (int r = 0; r < reps; ++r) {
+            PriorityQueue<Long, Long> pq = factory.get();
+            long start = System.nanoTime();
+            for (Long k : keys) pq.insert(k, k);
+            insert += System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < n; ++i) sum += pq.removeMin().getKey();
+            remove += System.nanoTime() - start;
+        }
+        double ops = (double) n * reps * 1000;
+        System.out.printf("%-22s n=%-10d insert %7.2f Mops/s  removeMin %7.2f Mops/s (%d)%n", name, n,
+                ops / insert, ops / remove, sum);
+    }
+
+    public static void main(String[] args) {
+        DaryHeapPriorityQueue<Integer, String> pq = new DaryHeapPriorityQueue<>(4);
+        for (int i : new int[]{35, 26, 15, 24, 33, 4, 12, 1, 23, 21, 2, 5})
+            pq.insert(i, Integer.toString(i));
+        System.out.println("4-ary heap: " + pq);
+
+        // sizes may be given on the command line, e.g. 1000 1000000 100000000 (with -Xmx16g)
+        int[] sizes = {1_000, 1_000_000};
+        if (args.length > 0) sizes = Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+        Random rnd = new Random(5);
+        for (int n : sizes) {
+            Long[] keys = new Long[n];
+            for (int i = 0; i < n; ++i) keys[i] = rnd.nextLong();
+            for (int round = 0; round < 2; ++round) {
+                throughput("HeapPriorityQueue", HeapPriorityQueue::new, keys);
+                for (int d : new int[]{2, 4, 8})
+                    throughput(d + "-ary DaryHeap", () -> new DaryHeapPriorityQueue<>(d), keys);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class DaryHeapPriorityQueueTest {
+
+	@Test
+	void testMin() {
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+		DaryHeapPriorityQueue<Integer, String> pq = new DaryHeapPriorityQueue<>(3);
+
+		assertNull(pq.min());
+		for(Integer i : arr) pq.insert(i, Integer.toString(i));
+
+		assertEquals(12, pq.size());
+		assertEquals(1, pq.min().getKey());
+	}
+
+	@Test
+	void testRemoveMin() {
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+		DaryHeapPriorityQueue<Integer, String> pq = new DaryHeapPriorityQueue<>(4);
+
+		for(Integer i : arr) pq.insert(i, Integer.toString(i));
+
+		StringBuilder sb = new StringBuilder();
+		while (!pq.isEmpty()) sb.append(pq.removeMin().getKey()).append(' ');
+		assertEquals("1 2 4 5 12 15 21 23 24 26 33 35 ", sb.toString());
+		assertNull(pq.removeMin());
+	}
+
+	@Test
+	void testRandomAgainstJdk() {
+		for(int d : new int[] {2, 4, 8}) {
+			DaryHeapPriorityQueue<Integer, Integer> pq = new DaryHeapPriorityQueue<>(d);
+			java.util.PriorityQueue<Integer> expected = new java.util.PriorityQueue<>();
+			java.util.Random rnd = new java.util.Random(d);
+			for(int i = 0; i < 10000; ++i) {
+				if (rnd.nextInt(3) > 0 || expected.isEmpty()) {
+					int k = rnd.nextInt(500);
+					pq.insert(k, i);
+					expected.add(k);
+				} else {
+					assertEquals(expected.poll(), pq.removeMin().getKey());
+				}
+			}
+			while (!expected.isEmpty()) assertEquals(expected.poll(), pq.removeMin().getKey());
+			assertTrue(pq.isEmpty());
+		}
+	}
+
+	@Test
+	void testInvalidFanOut() {
+		assertThrows(IllegalArgumentException.class, () -> new DaryHeapPriorityQueue<Integer, Integer>(1));
+	}
+
+}
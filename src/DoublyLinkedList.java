@@ -1,7 +1,7 @@
 import java.util.Iterator;
 
 public class DoublyLinkedList<E> implements List<E> {
-    private class Node<E> {
+    private class Node<E> implements Position<E> {
         E data;
         Node prev;
         Node next;
@@ -17,6 +17,15 @@ public class DoublyLinkedList<E> implements List<E> {
             this.prev = prev;
             this.next = next;
         }
+
+        public E getElement() {
+            return data;
+        }
+
+        /** Returns the list this node was created by. */
+        DoublyLinkedList<?> owner() {
+            return DoublyLinkedList.this;
+        }
     }
 
     private Node header;
@@ -92,8 +101,44 @@ public class DoublyLinkedList<E> implements List<E> {
     @Override
     public E remove(int i) {
         Node node = getNode(i);
+        return unlink(node);
+    }
+
+    /**
+     * Inserts an element at the back of the list and returns its position, which
+     * can be passed to remove(Position) to unlink the element in O(1) time.
+     *
+     * @param e the element to be inserted
+     * @return the position of the new element
+     */
+    public Position<E> addLastPosition(E e) {
+        addLast(e);
+        return trailer.prev;
+    }
+
+    /**
+     * Removes the element at the given position in O(1) time.
+     *
+     * @param p a position of this list
+     * @return the element removed
+     * @throws IllegalArgumentException if p is not a position of this list
+     */
+    public E remove(Position<E> p) throws IllegalArgumentException {
+        if (!(p instanceof Node))
+            throw new IllegalArgumentException("Invalid position");
+        Node node = (Node) p;
+        if (node.owner() != this || node == header)
+            throw new IllegalArgumentException("p is not a position of this list");
+        if (node.next == null)
+            throw new IllegalArgumentException("p is no longer in the list");
+        return unlink(node);
+    }
+
+    private E unlink(Node node) {
         node.prev.next = node.next;
         node.next.prev = node.prev;
+        node.prev = null;               // marks the position as removed
+        node.next = null;
 
         size--;
         return (E) node.data;
@@ -105,4 +105,17 @@ class DoublyLinkedListTest {
 		assertEquals("[0, 1, 2, 3, 4]", buf.toString());
 	}
 
+	@Test
+	void testRemoveForeignPosition() {
+		DoublyLinkedList<Integer> ll = new DoublyLinkedList<>();
+		DoublyLinkedList<Integer> other = new DoublyLinkedList<>();
+		ll.addLast(1);
+		Position<Integer> p = other.addLastPosition(2);
+		assertThrows(IllegalArgumentException.class, () -> ll.remove(p));
+		assertEquals(1, ll.size());
+		assertEquals(1, other.size());
+		assertEquals(2, other.remove(p));
+		assertThrows(IllegalArgumentException.class, () -> other.remove(p));
+	}
+
 }
@@ -0,0 +1,225 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * An implementation of an adaptable priority queue using an array-based heap.
+ * <p>
+ * Each entry remembers its current index in the heap, and swap keeps that
+ * index up to date, so an entry handed out by insert can be located in O(1)
+ * time and removed or re-keyed in O(log n) time.
+ */
+public class HeapAdaptablePriorityQueue<K, V> extends HeapPriorityQueue<K, V>
+        implements AdaptablePriorityQueue<K, V> {
+
+    //---------------- nested AdaptablePQEntry class ----------------
+
+    /**
+     * Extension of the PQEntry to include location information.
+     */
+    protected static class AdaptablePQEntry<K, V> extends PQEntry<K, V> {
+        private int index;      // entry's current index within the heap
+
+        public AdaptablePQEntry(K key, V value, int j) {
+            super(key, value);
+            index = j;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public void setIndex(int j) {
+            index = j;
+        }
+    } //----------- end of nested AdaptablePQEntry class -----------
+
+    /**
+     * Creates an empty adaptable priority queue using natural ordering of keys.
+     */
+    public HeapAdaptablePriorityQueue() {
+        super();
+    }
+
+    /**
+     * Creates an empty adaptable priority queue using the given comparator.
+     *
+     * @param comp comparator defining the order of keys in the priority queue
+     */
+    public HeapAdaptablePriorityQueue(Comparator<K> comp) {
+        super(comp);
+    }
+
+    // protected utilities
+
+    /**
+     * Creates a location-aware entry to be stored at index j of the heap.
+     */
+    @Override
+    protected PQEntry<K, V> createEntry(K key, V value, int j) {
+        return new AdaptablePQEntry<>(key, value, j);
+    }
+
+    /**
+     * Validates an entry to ensure it is location-aware.
+     */
+    protected AdaptablePQEntry<K, V> validate(Entry<K, V> entry) throws IllegalArgumentException {
+        if (!(entry instanceof AdaptablePQEntry))
+            throw new IllegalArgumentException("Invalid entry");
+        AdaptablePQEntry<K, V> locator = (AdaptablePQEntry<K, V>) entry;   // safe
+        int j = locator.getIndex();
+        if (j < 0 || j >= heap.size() || heap.get(j) != locator)
+            throw new IllegalArgumentException("Invalid entry");
+        return locator;
+    }
+
+    /**
+     * Exchanges the entries at indices i and j of the array list.
+     */
+    @Override
+    protected void swap(int i, int j) {
+        super.swap(i, j);                                       // perform the swap
+        ((AdaptablePQEntry<K, V>) heap.get(i)).setIndex(i);     // reset entry's index
+        ((AdaptablePQEntry<K, V>) heap.get(j)).setIndex(j);     // reset entry's index
+    }
+
+    /**
+     * Restores the heap property by moving the entry at index j upward/downward.
+     */
+    protected void bubble(int j) {
+        if (j > 0 && compare(heap.get(j), heap.get(parent(j))) < 0)
+            upheap(j);
+        else
+            downheap(j);                // although it might not need to move
+    }
+
+    // public methods
+
+    /**
+     * Inserts a key-value pair and returns the entry created.
+     *
+     * @param key   the key of the new entry
+     * @param value the associated value of the new entry
+     * @return the entry storing the new key-value pair
+     * @throws IllegalArgumentException if the key is unacceptable for this queue
+     */
+    @Override
+    public Entry<K, V> insert(K key, V value) throws IllegalArgumentException {
+        checkKey(key);                  // might throw an exception
+        PQEntry<K, V> newest = createEntry(key, value, heap.size());
+        heap.add(newest);               // add to the end of the list
+        upheap(heap.size() - 1);        // upheap newly added entry
+        return newest;
+    }
+
+    /**
+     * Removes and returns an entry with minimal key.
+     *
+     * @return the removed entry (or null if empty)
+     */
+    @Override
+    public Entry<K, V> removeMin() {
+        if (heap.isEmpty()) return null;
+        Entry<K, V> e = heap.get(0);
+        remove(e);
+        return e;
+    }
+
+    /**
+     * Removes the given entry from the priority queue.
+     *
+     * @param entry an entry of this priority queue
+     * @throws IllegalArgumentException if e is not a valid entry for the priority queue.
+     */
+    @Override
+    public void remove(Entry<K, V> entry) throws IllegalArgumentException {
+        AdaptablePQEntry<K, V> locator = validate(entry);
+        int j = locator.getIndex();
+        if (j == heap.size() - 1)       // entry is at last position
+            heap.remove(heap.size() - 1);   // so just remove it
+        else {
+            swap(j, heap.size() - 1);   // swap entry to last position
+            heap.remove(heap.size() - 1);   // then remove it
+            bubble(j);                  // and fix entry displaced by the swap
+        }
+        locator.setIndex(-1);           // the entry no longer belongs to the heap
+    }
+
+    /**
+     * Replaces the key of an entry.
+     *
+     * @param entry an entry of this priority queue
+     * @param key   the new key
+     * @throws IllegalArgumentException if e is not a valid entry for the priority queue.
+     */
+    @Override
+    public void replaceKey(Entry<K, V> entry, K key) throws IllegalArgumentException {
+        AdaptablePQEntry<K, V> locator = validate(entry);
+        checkKey(key);                  // might throw an exception
+        locator.setKey(key);            // method inherited from PQEntry
+        bubble(locator.getIndex());     // with new key, may need to move entry
+    }
+
+    /**
+     * Replaces the value of an entry.
+     *
+     * @param entry an entry of this priority queue
+     * @param value the new value
+     * @throws IllegalArgumentException if e is not a valid entry for the priority queue.
+     */
+    @Override
+    public void replaceValue(Entry<K, V> entry, V value) throws IllegalArgumentException {
+        AdaptablePQEntry<K, V> locator = validate(entry);
+        locator.setValue(value);        // method inherited from PQEntry
+    }
+
+    // remainder of class is a simple cancellation benchmark
+
+    /**
+     * Keeps n timers pending and repeatedly cancels a random one and schedules a
+     * replacement, reporting the average cost of a cancellation. Without entry
+     * indices, cancelling means finding the entry by a linear scan and rebuilding
+     * the heap around the gap.
+     */
+    private static void cancellations(String name, int n, int ops, boolean adaptable) {
+        HeapPriorityQueue<Long, Integer> pq = adaptable ? new HeapAdaptablePriorityQueue<>() : new HeapPriorityQueue<>();
+        ArrayList<Entry<Long, Integer>> pending = new ArrayList<>(n);
+        Random rnd = new Random(3);
+        for (int i = 0; i < n; ++i) pending.add(pq.insert(rnd.nextLong(), i));
+        long start = System.nanoTime();
+        for (int i = 0; i < ops; ++i) {
+            int victim = rnd.nextInt(n);
+            Entry<Long, Integer> e = pending.get(victim);
+            if (adaptable) {
+                ((HeapAdaptablePriorityQueue<Long, Integer>) pq).remove(e);
+            } else {
+                pq.heap.remove(pq.heap.indexOf(e));
+                pq.heapify();
+            }
+            pending.set(victim, pq.insert(rnd.nextLong(), i));
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-26s %7d timers: %10.1f ns per cancel+insert (min %d)%n", name, n,
+                (double) elapsed / ops, pq.min().getKey());
+    }
+
+    public static void main(String[] args) {
+        HeapAdaptablePriorityQueue<Integer, String> pq = new HeapAdaptablePriorityQueue<>();
+        Entry<Integer, String> e = null;
+        for (int i : new int[]{35, 26, 15, 24, 33, 4, 12, 1, 23, 21, 2, 5}) {
+            Entry<Integer, String> added = pq.insert(i, Integer.toString(i));
+            if (i == 24) e = added;
+        }
+        pq.replaceKey(e, 0);
+        System.out.println("after replaceKey(24 -> 0): " + pq);
+        pq.remove(e);
+        System.out.println("after remove: " + pq);
+
+        for (int n : new int[]{1_000, 10_000, 100_000}) {
+            for (int round = 0; round < 2; ++round) {
+                cancellations("HeapPriorityQueue (scan)", n, 2_000, false);
+                cancellations("HeapAdaptablePriorityQueue", n, 200_000, true);
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class HeapAdaptablePriorityQueueTest {
+
+	@Test
+	void testRemove() {
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+		HeapAdaptablePriorityQueue<Integer, String> pq = new HeapAdaptablePriorityQueue<>();
+		Entry<Integer, String> e4 = null;
+
+		for(Integer i : arr) {
+			Entry<Integer, String> e = pq.insert(i, Integer.toString(i));
+			if (i == 4) e4 = e;
+		}
+		pq.remove(e4);
+		assertEquals(11, pq.size());
+
+		StringBuilder sb = new StringBuilder();
+		while (!pq.isEmpty()) sb.append(pq.removeMin().getKey()).append(' ');
+		assertEquals("1 2 5 12 15 21 23 24 26 33 35 ", sb.toString());
+	}
+
+	@Test
+	void testReplaceKey() {
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+		HeapAdaptablePriorityQueue<Integer, String> pq = new HeapAdaptablePriorityQueue<>();
+		Entry<Integer, String> e24 = null, e1 = null;
+
+		for(Integer i : arr) {
+			Entry<Integer, String> e = pq.insert(i, Integer.toString(i));
+			if (i == 24) e24 = e;
+			if (i == 1) e1 = e;
+		}
+		pq.replaceKey(e24, 0);
+		assertSame(e24, pq.min());
+		pq.replaceKey(e1, 100);
+		pq.replaceValue(e1, "hundred");
+		assertEquals(0, pq.removeMin().getKey());
+		assertEquals(2, pq.min().getKey());
+		Entry<Integer, String> last = null;
+		while (!pq.isEmpty()) last = pq.removeMin();
+		assertEquals(100, last.getKey());
+		assertEquals("hundred", last.getValue());
+	}
+
+	@Test
+	void testInvalidEntry() {
+		HeapAdaptablePriorityQueue<Integer, String> pq = new HeapAdaptablePriorityQueue<>();
+		Entry<Integer, String> e = pq.insert(1, "one");
+		pq.insert(2, "two");
+		pq.remove(e);
+		assertThrows(IllegalArgumentException.class, () -> pq.remove(e));
+		assertThrows(IllegalArgumentException.class, () -> pq.replaceKey(e, 3));
+		HeapAdaptablePriorityQueue<Integer, String> other = new HeapAdaptablePriorityQueue<>();
+		Entry<Integer, String> foreign = other.insert(2, "two");
+		assertThrows(IllegalArgumentException.class, () -> pq.remove(foreign));
+	}
+
+	@Test
+	void testRandomUpdates() {
+		HeapAdaptablePriorityQueue<Integer, Integer> pq = new HeapAdaptablePriorityQueue<>();
+		java.util.ArrayList<Entry<Integer, Integer>> live = new java.util.ArrayList<>();
+		java.util.Random rnd = new java.util.Random(11);
+		for(int i = 0; i < 5000; ++i) {
+			int op = rnd.nextInt(3);
+			if (op == 0 || live.isEmpty()) live.add(pq.insert(rnd.nextInt(1000), i));
+			else if (op == 1) pq.remove(live.remove(rnd.nextInt(live.size())));
+			else pq.replaceKey(live.get(rnd.nextInt(live.size())), rnd.nextInt(1000));
+		}
+		assertEquals(live.size(), pq.size());
+		int prev = Integer.MIN_VALUE;
+		while (!pq.isEmpty()) {
+			int k = pq.removeMin().getKey();
+			assertTrue(prev <= k);
+			prev = k;
+		}
+	}
+
+}
@@ -5,13 +5,14 @@
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.Random;
 
 /**
  * An implementation of a priority queue using an array-based heap.
  */
 
 public class HeapPriorityQueue<K, V> extends AbstractPriorityQueue<K, V> {
-    private ArrayList<PQEntry<K, V>> heap = new ArrayList<PQEntry<K, V>>();
+    protected ArrayList<PQEntry<K, V>> heap = new ArrayList<PQEntry<K, V>>();
 
     /**
      * Creates an empty priority queue based on the natural ordering of its keys.
@@ -48,6 +49,15 @@ public class HeapPriorityQueue<K, V> extends AbstractPriorityQueue<K, V> {
     }
 
     // protected utilities
+
+    /**
+     * Creates the entry to be stored at index j of the heap. Subclasses may
+     * override this to store additional information with each entry.
+     */
+    protected PQEntry<K, V> createEntry(K key, V value, int j) {
+        return new PQEntry<K, V>(key, value);
+    }
+
     protected int parent(int j) {
         if (j == 0) return 0;
         return (j - 1) / 2;
@@ -148,12 +158,106 @@ public class HeapPriorityQueue<K, V> extends AbstractPriorityQueue<K, V> {
      */
     @Override
     public Entry<K, V> insert(K key, V value) throws IllegalArgumentException {
-        PQEntry<K, V> e = new PQEntry<K, V>(key, value);
+        PQEntry<K, V> e = createEntry(key, value, heap.size());
         heap.add(e);
         upheap(heap.size() - 1);
         return e;
     }
 
+    /**
+     * Inserts the respective key-value pairs of the two arrays, paired
+     * element-by-element up to the length of the shorter one. Depending on the
+     * size of the batch relative to the queue, the new entries are either
+     * upheaped one at a time or appended and followed by a bottom-up heapify.
+     *
+     * @param keys   an array of the keys to insert
+     * @param values an array of the associated values
+     * @throws IllegalArgumentException if a key is unacceptable for this queue
+     *                                  (in which case the queue is unchanged)
+     */
+    public void insertAll(K[] keys, V[] values) throws IllegalArgumentException {
+        int m = Math.min(keys.length, values.length);
+        for (int i = 0; i < m; ++i) checkKey(keys[i]);
+        int n = heap.size();
+        heap.ensureCapacity(n + m);
+        for (int i = 0; i < m; ++i) heap.add(createEntry(keys[i], values[i], heap.size()));
+        restoreHeap(n);
+    }
+
+    /**
+     * Inserts the key-value pair of every given entry, choosing between
+     * individual upheaps and a bottom-up heapify as insertAll(keys, values) does.
+     * New entries are created; the given ones are not retained.
+     *
+     * @param entries the key-value pairs to insert
+     * @throws IllegalArgumentException if a key is unacceptable for this queue
+     *                                  (in which case the queue is unchanged)
+     */
+    public void insertAll(Iterable<? extends Entry<K, V>> entries) throws IllegalArgumentException {
+        int n = heap.size();
+        try {
+            for (Entry<K, V> e : entries) {
+                checkKey(e.getKey());
+                heap.add(createEntry(e.getKey(), e.getValue(), heap.size()));
+            }
+        } catch (IllegalArgumentException ex) {
+            heap.subList(n, heap.size()).clear();  // undo the partial batch
+            throw ex;
+        }
+        restoreHeap(n);
+    }
+
+    /**
+     * Moves every entry of the other queue into this one, leaving the other
+     * queue empty. The entries are re-created in this queue.
+     *
+     * @param other the priority queue to be merged into this one
+     */
+    public void merge(HeapPriorityQueue<K, V> other) {
+        if (other == this) return;
+        insertAll(other.heap);
+        other.heap.clear();
+    }
+
+    /**
+     * Restores the heap property after entries were appended from index n on.
+     * An upheap costs O(1) comparisons on average for random keys but up to
+     * log(n + m) for keys smaller than those already queued, while a bottom-up
+     * heapify always costs O(n + m). Once the batch outnumbers the entries
+     * already queued, heapify is within a constant factor of even the average
+     * upheap cost, so it is chosen; smaller batches are upheaped one by one.
+     */
+    private void restoreHeap(int n) {
+        int total = heap.size();
+        if (total - n > n) {
+            heapify();
+        } else {
+            for (int j = n; j < total; ++j) upheap(j);
+        }
+    }
+
+    /**
+     * Replaces an entry with minimal key by a new key-value pair, returning the
+     * entry removed. This is equivalent to removeMin followed by insert, but
+     * restores the heap with a single downheap.
+     *
+     * @param key   the key of the new entry
+     * @param value the associated value of the new entry
+     * @return the removed entry (or null if the queue was empty)
+     * @throws IllegalArgumentException if the key is unacceptable for this queue
+     */
+    public Entry<K, V> replaceMin(K key, V value) throws IllegalArgumentException {
+        checkKey(key);
+        if (heap.isEmpty()) {
+            insert(key, value);
+            return null;
+        }
+        Entry<K, V> old = heap.get(0);
+        heap.set(0, createEntry(key, value, 0));
+        downheap(0);
+        return old;
+    }
+
     /**
      * Removes and returns an entry with minimal key.
      *
@@ -193,5 +297,38 @@ public class HeapPriorityQueue<K, V> extends AbstractPriorityQueue<K, V> {
         sb.append(']');
         return sb.toString();
     }
-}
 
+    // remainder of class is a simple bulk insertion benchmark
+
+    /**
+     * Times adding a batch of m entries to a queue of n, either by m calls to
+     * insert or by one call to insertAll (for benchmarking only).
+     */
+    private static void batch(int n, int m, boolean descending, Random rnd) {
+        Long[] base = new Long[n], keys = new Long[m];
+        for (int i = 0; i < n; ++i) base[i] = rnd.nextLong();
+        for (int i = 0; i < m; ++i) keys[i] = descending ? Long.MIN_VALUE + m - i : rnd.nextLong();
+        long one = Long.MAX_VALUE, all = Long.MAX_VALUE;   // best of several rounds
+        for (int round = 0; round < 5; ++round) {
+            HeapPriorityQueue<Long, Long> a = new HeapPriorityQueue<>(base, base);
+            HeapPriorityQueue<Long, Long> b = new HeapPriorityQueue<>(base, base);
+            long start = System.nanoTime();
+            for (Long k : keys) a.insert(k, k);
+            one = Math.min(one, System.nanoTime() - start);
+            start = System.nanoTime();
+            b.insertAll(keys, keys);
+            all = Math.min(all, System.nanoTime() - start);
+        }
+        System.out.printf("n=%-8d batch=%-8d %-10s insert loop %8.2f ms  insertAll %8.2f ms%n", n, m,
+                descending ? "descending" : "random", one / 1e6, all / 1e6);
+    }
+
+    public static void main(String[] args) {
+        Random rnd = new Random(13);
+        for (boolean descending : new boolean[]{false, true}) {
+            batch(1_000_000, 500_000, descending, rnd);
+            batch(1_000_000, 1_000, descending, rnd);
+            batch(100_000, 500_000, descending, rnd);
+        }
+    }
+}
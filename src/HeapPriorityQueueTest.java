@@ -58,4 +58,45 @@ class HeapPriorityQueueTest {
 		assertEquals("[1, 2, 5, 23, 4, 12, 15, 35, 24, 33, 21, 26]", pq.toString());
 	}
 
+	@Test
+	void testInsertAll() {
+		java.util.Random rnd = new java.util.Random(3);
+		// a small batch into a large queue (upheaps) and a large batch into a small one (heapify)
+		for(int[] sizes : new int[][] {{1000, 10}, {10, 1000}}) {
+			HeapPriorityQueue<Integer, Integer> pq = new HeapPriorityQueue<>();
+			java.util.PriorityQueue<Integer> expected = new java.util.PriorityQueue<>();
+			for(int i = 0; i < sizes[0]; ++i) {
+				int k = rnd.nextInt(10000);
+				pq.insert(k, k);
+				expected.add(k);
+			}
+			Integer[] keys = new Integer[sizes[1]];
+			for(int i = 0; i < keys.length; ++i) {
+				keys[i] = rnd.nextInt(10000);
+				expected.add(keys[i]);
+			}
+			pq.insertAll(keys, keys);
+			assertEquals(expected.size(), pq.size());
+			while (!expected.isEmpty()) assertEquals(expected.poll(), pq.removeMin().getKey());
+		}
+	}
+
+	@Test
+	void testMerge() {
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+		HeapPriorityQueue<Integer, String> a = new HeapPriorityQueue<>();
+		HeapPriorityQueue<Integer, String> b = new HeapPriorityQueue<>();
+
+		for(int i = 0; i < arr.length; ++i) {
+			(i % 2 == 0 ? a : b).insert(arr[i], Integer.toString(arr[i]));
+		}
+		a.merge(b);
+		assertEquals(12, a.size());
+		assertEquals(0, b.size());
+
+		StringBuilder sb = new StringBuilder();
+		while (a.size() > 0) sb.append(a.removeMin().getKey()).append(' ');
+		assertEquals("1 2 4 5 12 15 21 23 24 26 33 35 ", sb.toString());
+	}
+
 }
@@ -0,0 +1,184 @@
+/*
+ * Map from primitive int keys to primitive int values, stored without boxing
+ * in flat parallel arrays using linear probing.
+ *
+ * Since a primitive value cannot be null, a missing key is reported as 0 by
+ * get, put and remove; use containsKey or getOrDefault to tell the two apart.
+ */
+
+public class IntIntHashMap extends AbstractPrimitiveHashMap {
+	private int[] keys; // initialized within createTable
+	private int[] vals;
+
+	/** Creates a hash table with capacity 17 and prime factor 109345121. */
+	public IntIntHashMap() {
+		super();
+	}
+
+	/** Creates a hash table with given capacity and prime factor 109345121. */
+	public IntIntHashMap(int cap) {
+		super(cap);
+	}
+
+	/** Creates a hash table with the given capacity and prime factor. */
+	public IntIntHashMap(int cap, int p) {
+		super(cap, p);
+	}
+
+	/** Creates an empty table having length equal to current capacity. */
+	@Override
+	protected void createTable() {
+		super.createTable();
+		keys = new int[capacity];
+		vals = new int[capacity];
+	}
+
+	@Override
+	protected boolean keyEquals(int j, long key) {
+		return keys[j] == key;
+	}
+
+	/**
+	 * Tests whether the map contains an entry with the specified key.
+	 *
+	 * @param key the key of interest
+	 * @return true if an entry with the key exists, false otherwise
+	 */
+	public boolean containsKey(int key) {
+		return findSlot(key) >= 0;
+	}
+
+	/**
+	 * Returns the value associated with the specified key, or 0 if no such entry exists.
+	 *
+	 * @param key the key whose associated value is to be returned
+	 * @return the associated value, or 0 if no such entry exists
+	 */
+	public int get(int key) {
+		return getOrDefault(key, 0);
+	}
+
+	/**
+	 * Returns the value associated with the specified key, or the given default
+	 * if no such entry exists.
+	 *
+	 * @param key          the key whose associated value is to be returned
+	 * @param defaultValue the value to return if the key is absent
+	 * @return the associated value, or defaultValue if no such entry exists
+	 */
+	public int getOrDefault(int key, int defaultValue) {
+		int j = findSlot(key);
+		if (j < 0) return defaultValue;  // no match found
+		return vals[j];
+	}
+
+	/**
+	 * Associates the given value with the given key. If an entry with the key was
+	 * already in the map, this replaces the previous value with the new one and
+	 * returns the old value. Otherwise, a new entry is added and 0 is returned.
+	 *
+	 * @param key   key with which the specified value is to be associated
+	 * @param value value to be associated with the specified key
+	 * @return the previous value associated with the key (or 0, if no such entry)
+	 */
+	public int put(int key, int value) {
+		int j = findSlot(key);
+		if (j >= 0) {                    // this key has an existing entry
+			int old = vals[j];
+			vals[j] = value;
+			return old;
+		}
+		j = -(j + 1);                    // convert to proper index
+		keys[j] = key;
+		vals[j] = value;
+		markUsed(j);
+		size++;
+		checkLoad();
+		return 0;
+	}
+
+	/**
+	 * Removes the entry with the specified key, if present, and returns its
+	 * associated value. Otherwise does nothing and returns 0.
+	 *
+	 * @param key the key whose entry is to be removed from the map
+	 * @return the previous value associated with the removed key, or 0 if no such entry exists
+	 */
+	public int remove(int key) {
+		int j = findSlot(key);
+		if (j < 0) return 0;             // nothing to remove
+		int answer = vals[j];
+		markDefunct(j);                  // mark this slot as deactivated
+		size--;
+		return answer;
+	}
+
+	/**
+	 * Returns a snapshot array of all keys contained in the map.
+	 *
+	 * @return array of the map's keys, in table order
+	 */
+	public int[] keys() {
+		int[] result = new int[size];
+		int i = 0;
+		for (int j = 0; j < capacity; ++j) {
+			if (state[j] == USED) result[i++] = keys[j];
+		}
+		return result;
+	}
+
+	/** Updates the size of the hash table and rehashes all entries. */
+	@Override
+	protected void resize(int newCap) {
+		byte[] oldState = state;
+		int[] oldKeys = keys;
+		int[] oldVals = vals;
+		int oldCap = capacity;
+		capacity = newCap;
+		createTable();
+		size = 0;
+		for (int j = 0; j < oldCap; ++j) {
+			if (oldState[j] == USED) put(oldKeys[j], oldVals[j]);
+		}
+	}
+
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[');
+		for (int j = 0; j < capacity; ++j) {
+			if (state[j] != USED) continue;
+			if (sb.length() > 1) sb.append(", ");
+			sb.append('<').append(keys[j]).append(", ").append(vals[j]).append('>');
+		}
+		sb.append(']');
+		return sb.toString();
+	}
+
+	public static void main(String[] args) {
+		int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+		// heap per entry, including the boxed keys and values the generic map needs
+		long before = Benchmarks.usedMemory();
+		ChainHashMap<Integer, Integer> boxed = new ChainHashMap<>();
+		for (int i = 0; i < n; ++i) boxed.put(i * 31, i + 1000);
+		long boxedBytes = Benchmarks.usedMemory() - before;
+
+		before = Benchmarks.usedMemory();
+		IntIntHashMap prim = new IntIntHashMap();
+		for (int i = 0; i < n; ++i) prim.put(i * 31, i + 1000);
+		long primBytes = Benchmarks.usedMemory() - before;
+
+		System.out.printf("ChainHashMap<Integer,Integer> ~%d bytes/entry%n", boxedBytes / n);
+		System.out.printf("IntIntHashMap                 ~%d bytes/entry%n", primBytes / n);
+
+		long start = System.nanoTime();
+		long sum = 0;
+		for (int i = 0; i < n; ++i) sum += boxed.get(i * 31);
+		long boxedGet = System.nanoTime() - start;
+		start = System.nanoTime();
+		for (int i = 0; i < n; ++i) sum += prim.get(i * 31);
+		long primGet = System.nanoTime() - start;
+		System.out.printf("get: boxed %.1f ns/op, primitive %.1f ns/op (%d)%n",
+				(double) boxedGet / n, (double) primGet / n, sum);
+	}
+}
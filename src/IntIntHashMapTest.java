@@ -0,0 +1,114 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+class IntIntHashMapTest {
+
+	@Test
+	void testSize() {
+		IntIntHashMap map = new IntIntHashMap();
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(i, i * i);
+		}
+		assertEquals(n, map.size());
+	}
+
+	@Test
+	void testGet() {
+		IntIntHashMap map = new IntIntHashMap();
+		for(int i = 0; i < 10; ++i) {
+			map.put(i, i * i);
+		}
+		assertEquals(25, map.get(5));
+		assertEquals(0, map.get(42));
+		assertEquals(-1, map.getOrDefault(42, -1));
+	}
+
+	@Test
+	void testPut() {
+		IntIntHashMap map = new IntIntHashMap();
+		assertEquals(0, map.put(7, 1));
+		assertEquals(1, map.put(7, 2));
+		assertEquals(2, map.get(7));
+		assertEquals(1, map.size());
+	}
+
+	@Test
+	void testRemove() {
+		IntIntHashMap map = new IntIntHashMap();
+		for(int i = 0; i < 10; ++i) {
+			map.put(i, i * i);
+		}
+		assertEquals(16, map.remove(4));
+		assertFalse(map.containsKey(4));
+		assertEquals(9, map.size());
+		assertEquals(81, map.get(9));
+	}
+
+	@Test
+	void testNegativeKeysAndResize() {
+		IntIntHashMap map = new IntIntHashMap();
+		int n = 10000;
+		for(int i = -n; i < n; ++i) {
+			map.put(i, -i);
+		}
+		assertEquals(2 * n, map.size());
+		for(int i = -n; i < n; ++i) {
+			assertEquals(-i, map.get(i));
+		}
+	}
+
+	@Test
+	void testKeys() {
+		IntIntHashMap map = new IntIntHashMap();
+		map.put(3, 0);
+		map.put(1, 0);
+		map.put(2, 0);
+		map.remove(1);
+		int[] keys = map.keys();
+		Arrays.sort(keys);
+		assertEquals("[2, 3]", Arrays.toString(keys));
+	}
+
+	@Test
+	void testSlidingWindowChurn() {
+		IntIntHashMap map = new IntIntHashMap();
+		int window = 10000;
+		for(int i = 0; i < 400000; ++i) {
+			map.put(i, i);
+			if (i >= window) assertEquals(i - window, map.remove(i - window));
+			assertTrue(map.size() + map.defunct <= map.capacity / 2);
+		}
+		assertEquals(window, map.size());
+		assertEquals(399999, map.get(399999));
+	}
+
+	@Test
+	void testChurnNearHalfLoad() {
+		int[] rebuilds = {0};
+		IntIntHashMap map = new IntIntHashMap(20011) {
+			@Override
+			protected void resize(int newCap) {
+				rebuilds[0]++;
+				super.resize(newCap);
+			}
+		};
+		int live = map.capacity / 2;
+		for(int i = 0; i < live; ++i) {
+			map.put(i, i);
+		}
+		assertEquals(0, rebuilds[0]);
+		for(int i = 0; i < 20000; ++i) {
+			assertEquals(i, map.remove(i));
+			map.put(live + i, live + i);
+		}
+		assertEquals(live, map.size());
+		// a rebuild must free a constant fraction of the table, not just a few slots
+		assertTrue(rebuilds[0] <= 4, "rebuilt " + rebuilds[0] + " times");
+		assertEquals(live + 19999, map.get(live + 19999));
+	}
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Map from primitive int keys to object values, with keys stored without
+ * boxing in a flat array using linear probing.
+ */
+
+public class IntObjectHashMap<V> extends AbstractPrimitiveHashMap {
+	private int[] keys; // initialized within createTable
+	private Object[] vals;
+
+	/** Creates a hash table with capacity 17 and prime factor 109345121. */
+	public IntObjectHashMap() {
+		super();
+	}
+
+	/** Creates a hash table with given capacity and prime factor 109345121. */
+	public IntObjectHashMap(int cap) {
+		super(cap);
+	}
+
+	/** Creates a hash table with the given capacity and prime factor. */
+	public IntObjectHashMap(int cap, int p) {
+		super(cap, p);
+	}
+
+	/** Creates an empty table having length equal to current capacity. */
+	@Override
+	protected void createTable() {
+		super.createTable();
+		keys = new int[capacity];
+		vals = new Object[capacity];
+	}
+
+	@Override
+	protected boolean keyEquals(int j, long key) {
+		return keys[j] == key;
+	}
+
+	/**
+	 * Tests whether the map contains an entry with the specified key.
+	 *
+	 * @param key the key of interest
+	 * @return true if an entry with the key exists, false otherwise
+	 */
+	public boolean containsKey(int key) {
+		return findSlot(key) >= 0;
+	}
+
+	/**
+	 * Returns the value associated with the specified key, or null if no such entry exists.
+	 *
+	 * @param key the key whose associated value is to be returned
+	 * @return the associated value, or null if no such entry exists
+	 */
+	@SuppressWarnings({ "unchecked" })
+	public V get(int key) {
+		int j = findSlot(key);
+		if (j < 0) return null;          // no match found
+		return (V) vals[j];
+	}
+
+	/**
+	 * Associates the given value with the given key. If an entry with the key was
+	 * already in the map, this replaces the previous value with the new one and
+	 * returns the old value. Otherwise, a new entry is added and null is returned.
+	 *
+	 * @param key   key with which the specified value is to be associated
+	 * @param value value to be associated with the specified key
+	 * @return the previous value associated with the key (or null, if no such entry)
+	 */
+	@SuppressWarnings({ "unchecked" })
+	public V put(int key, V value) {
+		int j = findSlot(key);
+		if (j >= 0) {                    // this key has an existing entry
+			V old = (V) vals[j];
+			vals[j] = value;
+			return old;
+		}
+		j = -(j + 1);                    // convert to proper index
+		keys[j] = key;
+		vals[j] = value;
+		markUsed(j);
+		size++;
+		checkLoad();
+		return null;
+	}
+
+	/**
+	 * Removes the entry with the specified key, if present, and returns its
+	 * associated value. Otherwise does nothing and returns null.
+	 *
+	 * @param key the key whose entry is to be removed from the map
+	 * @return the previous value associated with the removed key, or null if no such entry exists
+	 */
+	@SuppressWarnings({ "unchecked" })
+	public V remove(int key) {
+		int j = findSlot(key);
+		if (j < 0) return null;          // nothing to remove
+		V answer = (V) vals[j];
+		markDefunct(j);                  // mark this slot as deactivated
+		vals[j] = null;                  // help garbage collection
+		size--;
+		return answer;
+	}
+
+	/**
+	 * Returns a snapshot array of all keys contained in the map.
+	 *
+	 * @return array of the map's keys, in table order
+	 */
+	public int[] keys() {
+		int[] result = new int[size];
+		int i = 0;
+		for (int j = 0; j < capacity; ++j) {
+			if (state[j] == USED) result[i++] = keys[j];
+		}
+		return result;
+	}
+
+	/** Updates the size of the hash table and rehashes all entries. */
+	@Override
+	@SuppressWarnings({ "unchecked" })
+	protected void resize(int newCap) {
+		byte[] oldState = state;
+		int[] oldKeys = keys;
+		Object[] oldVals = vals;
+		int oldCap = capacity;
+		capacity = newCap;
+		createTable();
+		size = 0;
+		for (int j = 0; j < oldCap; ++j) {
+			if (oldState[j] == USED) put(oldKeys[j], (V) oldVals[j]);
+		}
+	}
+
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[');
+		for (int j = 0; j < capacity; ++j) {
+			if (state[j] != USED) continue;
+			if (sb.length() > 1) sb.append(", ");
+			sb.append('<').append(keys[j]).append(", ").append(vals[j]).append('>');
+		}
+		sb.append(']');
+		return sb.toString();
+	}
+}
@@ -0,0 +1,91 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+class IntObjectHashMapTest {
+
+	@Test
+	void testSize() {
+		IntObjectHashMap<String> map = new IntObjectHashMap<>();
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(i, "v" + i);
+		}
+		assertEquals(n, map.size());
+	}
+
+	@Test
+	void testGet() {
+		IntObjectHashMap<String> map = new IntObjectHashMap<>();
+		for(int i = 0; i < 10; ++i) {
+			map.put(i, "v" + i);
+		}
+		assertEquals("v5", map.get(5));
+		assertNull(map.get(42));
+		assertTrue(map.containsKey(9));
+		assertFalse(map.containsKey(10));
+	}
+
+	@Test
+	void testPut() {
+		IntObjectHashMap<String> map = new IntObjectHashMap<>();
+		assertNull(map.put(7, "a"));
+		assertEquals("a", map.put(7, "b"));
+		assertEquals("b", map.get(7));
+		assertEquals(1, map.size());
+	}
+
+	@Test
+	void testRemove() {
+		IntObjectHashMap<String> map = new IntObjectHashMap<>();
+		for(int i = 0; i < 10; ++i) {
+			map.put(i, "v" + i);
+		}
+		assertEquals("v4", map.remove(4));
+		assertNull(map.remove(4));
+		assertFalse(map.containsKey(4));
+		assertEquals(9, map.size());
+		assertEquals("v9", map.get(9));
+	}
+
+	@Test
+	void testNegativeKeysAndResize() {
+		IntObjectHashMap<Integer> map = new IntObjectHashMap<>();
+		int n = 10000;
+		for(int i = -n; i < n; ++i) {
+			map.put(i, -i);
+		}
+		assertEquals(2 * n, map.size());
+		for(int i = -n; i < n; ++i) {
+			assertEquals(-i, map.get(i));
+		}
+	}
+
+	@Test
+	void testKeys() {
+		IntObjectHashMap<String> map = new IntObjectHashMap<>();
+		map.put(3, "c");
+		map.put(1, "a");
+		map.put(2, "b");
+		map.remove(1);
+		int[] keys = map.keys();
+		Arrays.sort(keys);
+		assertEquals("[2, 3]", Arrays.toString(keys));
+	}
+
+	@Test
+	void testSlidingWindowChurn() {
+		IntObjectHashMap<Integer> map = new IntObjectHashMap<>();
+		int window = 10000;
+		for(int i = 0; i < 400000; ++i) {
+			map.put(i, i);
+			if (i >= window) assertEquals(i - window, map.remove(i - window));
+			assertTrue(map.size() + map.defunct <= map.capacity / 2);
+		}
+		assertEquals(window, map.size());
+		assertEquals(399999, map.get(399999));
+	}
+
+}
@@ -1,3 +1,5 @@
+import java.util.Iterator;
+
 /**
  * Concrete implementation of a binary tree using a node-based, linked structure.
  */
@@ -166,6 +168,83 @@ public class LinkedBinaryTree<E> extends AbstractBinaryTree<E> {
         return ((Node) p).getRight();
     }
 
+    /**
+     * Returns the number of children of Position p, read directly from the node.
+     *
+     * @param p A valid Position within the tree
+     * @return number of children of Position p
+     */
+    @Override
+    public int numChildren(Position<E> p) {
+        Node<E> node = (Node<E>) p;
+        return (node.getLeft() != null ? 1 : 0) + (node.getRight() != null ? 1 : 0);
+    }
+
+    /**
+     * Returns true if Position p has one or more children, read directly from the node.
+     *
+     * @param p A valid Position within the tree
+     * @return true if p has at least one child, false otherwise
+     */
+    @Override
+    public boolean isInternal(Position<E> p) {
+        Node<E> node = (Node<E>) p;
+        return node.getLeft() != null || node.getRight() != null;
+    }
+
+    /**
+     * Returns true if Position p does not have any children, read directly from the node.
+     *
+     * @param p A valid Position within the tree
+     * @return true if p has zero children, false otherwise
+     */
+    @Override
+    public boolean isExternal(Position<E> p) {
+        Node<E> node = (Node<E>) p;
+        return node.getLeft() == null && node.getRight() == null;
+    }
+
+    //---------------- nested ChildIterator class ----------------
+    /* Reports the left and then the right child of a node, skipping absent ones. */
+    private static class ChildIterator<E> implements Iterator<Position<E>> {
+        private Node<E> next;        // child to report next (null if done)
+        private Node<E> right;       // right child, if not yet reported
+
+        ChildIterator(Node<E> node) {
+            next = node.getLeft();
+            right = node.getRight();
+            if (next == null) {
+                next = right;
+                right = null;
+            }
+        }
+
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        public Position<E> next() {
+            if (next == null) throw new java.util.NoSuchElementException("No further children");
+            Node<E> child = next;
+            next = right;
+            right = null;
+            return child;
+        }
+    } //----------- end of nested ChildIterator class -----------
+
+    /**
+     * Returns a live view of the children of Position p. Unlike the inherited
+     * version, no list is built: iterating reads the node's child fields.
+     *
+     * @param p A valid Position within the tree
+     * @return iterable view of the Positions of p's children
+     */
+    @Override
+    public Iterable<Position<E>> children(Position<E> p) {
+        Node<E> node = (Node<E>) p;
+        return () -> new ChildIterator<>(node);
+    }
+
     // update methods supported by this class
 
     /**
@@ -291,5 +370,49 @@ public class LinkedBinaryTree<E> extends AbstractBinaryTree<E> {
         sb.append("]");
         return sb.toString();
     }
-}
 
+    // remainder of class is a simple traversal benchmark
+
+    /**
+     * Reports time and bytes allocated to reach the first k positions of a
+     * traversal, and to go through all of it, counting the work done to set the
+     * traversal up (for benchmarking only).
+     */
+    private static void walk(String name, java.util.function.Supplier<Iterable<Position<Integer>>> traversal,
+                             int k) {
+        com.sun.management.ThreadMXBean bean =
+                (com.sun.management.ThreadMXBean) java.lang.management.ManagementFactory.getThreadMXBean();
+        long tid = Thread.currentThread().getId();
+        long bytes = bean.getThreadAllocatedBytes(tid);
+        long start = System.nanoTime();
+        int seen = 0;
+        for (Iterator<Position<Integer>> it = traversal.get().iterator(); it.hasNext() && seen < k; it.next())
+            seen++;
+        long first = System.nanoTime() - start;
+        long firstBytes = bean.getThreadAllocatedBytes(tid) - bytes;
+        bytes = bean.getThreadAllocatedBytes(tid);
+        start = System.nanoTime();
+        long sum = 0;
+        for (Position<Integer> p : traversal.get())
+            sum += p.getElement();
+        long all = System.nanoTime() - start;
+        bytes = bean.getThreadAllocatedBytes(tid) - bytes;
+        System.out.printf("%-22s first %d: %9d ns %10d bytes   all: %6.1f ms %10d bytes (%d)%n", name, seen, first,
+                firstBytes, all / 1e6, bytes, sum);
+    }
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Integer[] elements = new Integer[n];
+        for (int i = 0; i < n; ++i) elements[i] = i;
+        LinkedBinaryTree<Integer> tree = new LinkedBinaryTree<>();
+        tree.createLevelOrder(elements);
+        for (int round = 0; round < 3; ++round) {
+            walk("preorder", () -> tree.preorder(), 10);
+            walk("preorder snapshot", () -> tree.snapshot(tree.preorder()), 10);
+            walk("postorder", () -> tree.postorder(), 10);
+            walk("inorder", () -> tree.inorder(), 10);
+            walk("breadthfirst", () -> tree.breadthfirst(), 10);
+        }
+    }
+}
@@ -107,4 +107,95 @@ class LinkedBinaryTreeTest {
 		assertEquals(3, bt.height(bt.root()));
 	}
 
+	@Test
+	void testTraversalOrders() {
+		LinkedBinaryTree<Integer> bt = new LinkedBinaryTree<Integer>();
+		//        0
+		//      1   2
+		//     3 4   5
+		//      6
+		Position<Integer> root = bt.addRoot(0);
+		Position<Integer> one = bt.addLeft(root, 1);
+		Position<Integer> two = bt.addRight(root, 2);
+		bt.addLeft(one, 3);
+		Position<Integer> four = bt.addRight(one, 4);
+		bt.addRight(two, 5);
+		Position<Integer> six = bt.addLeft(four, 6);
+
+		assertEquals("[0, 1, 3, 4, 6, 2, 5]", elements(bt.preorder()));
+		assertEquals("[3, 6, 4, 1, 5, 2, 0]", elements(bt.postorder()));
+		assertEquals("[3, 1, 6, 4, 0, 2, 5]", elements(bt.inorder()));
+		assertEquals("[0, 1, 2, 3, 4, 5, 6]", elements(bt.breadthfirst()));
+		assertEquals("[3, 1, 6, 4, 0, 2, 5]", bt.inorder().toString());
+		assertEquals("[3, 6, 4, 1, 5, 2, 0]", bt.snapshot(bt.postorder()).toString());
+		assertEquals(3, bt.height(root));
+		assertEquals(2, bt.height(one));
+		assertEquals(0, bt.height(six));
+		assertEquals(3, bt.depth(six));
+	}
+
+	@Test
+	void testDeepTree() {
+		// a path this long overflows the call stack of a recursive traversal
+		LinkedBinaryTree<Integer> bt = new LinkedBinaryTree<Integer>();
+		int n = 200000;
+		Position<Integer> p = bt.addRoot(0);
+		for(int i = 1; i < n; ++i)
+			p = (i % 2 == 0) ? bt.addLeft(p, i) : bt.addRight(p, i);
+		assertEquals(n - 1, bt.height(bt.root()));
+		assertEquals(n - 1, bt.depth(p));
+		int count = 0;
+		for(Position<Integer> q : bt.preorder()) assertEquals(count++, q.getElement());
+		for(Position<Integer> q : bt.postorder()) assertEquals(--count, q.getElement());
+		assertEquals(0, count);
+		assertEquals(n, bt.snapshot(bt.inorder()).size());
+	}
+
+	@Test
+	void testTraversalsAreLazy() {
+		LinkedBinaryTree<Integer> bt = new LinkedBinaryTree<Integer>();
+		assertFalse(bt.preorder().iterator().hasNext());
+		assertFalse(bt.postorder().iterator().hasNext());
+		assertFalse(bt.breadthfirst().iterator().hasNext());
+		assertThrows(java.util.NoSuchElementException.class, () -> bt.inorder().iterator().next());
+
+		Position<Integer> root = bt.addRoot(0);
+		Position<Integer> left = bt.addLeft(root, 1);
+		java.util.Iterator<Position<Integer>> it = bt.preorder().iterator();
+		assertSame(root, it.next());
+		bt.addRight(root, 2);  // not yet reached, so the traversal sees it
+		assertSame(left, it.next());
+		assertEquals(2, it.next().getElement());
+		assertFalse(it.hasNext());
+
+		// a snapshot allows changing the tree while going through it
+		for(Position<Integer> p : bt.snapshot(bt.preorder()))
+			if (bt.isExternal(p)) bt.remove(p);
+		assertEquals(1, bt.size());
+	}
+
+	@Test
+	void testChildrenView() {
+		LinkedBinaryTree<Integer> bt = new LinkedBinaryTree<Integer>();
+		Position<Integer> root = bt.addRoot(0);
+		assertTrue(bt.isExternal(root));
+		assertEquals(0, bt.numChildren(root));
+		assertFalse(bt.children(root).iterator().hasNext());
+
+		Iterable<Position<Integer>> children = bt.children(root);
+		Position<Integer> right = bt.addRight(root, 2);
+		assertTrue(bt.isInternal(root));
+		assertEquals("[2]", elements(children));  // the view follows the node
+		bt.addLeft(root, 1);
+		assertEquals(2, bt.numChildren(root));
+		assertEquals("[1, 2]", elements(children));
+		assertTrue(bt.isExternal(right));
+	}
+
+	private static String elements(Iterable<Position<Integer>> positions) {
+		java.util.List<Integer> list = new java.util.ArrayList<>();
+		for(Position<Integer> q : positions) list.add(q.getElement());
+		return list.toString();
+	}
+
 }
@@ -0,0 +1,91 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+class LongLongHashMapTest {
+
+	@Test
+	void testSize() {
+		LongLongHashMap map = new LongLongHashMap();
+		int n = 10;
+		for(long i = 0; i < n; ++i) {
+			map.put(i, i * i);
+		}
+		assertEquals(n, map.size());
+	}
+
+	@Test
+	void testGet() {
+		LongLongHashMap map = new LongLongHashMap();
+		for(long i = 0; i < 10; ++i) {
+			map.put(i, i * i);
+		}
+		assertEquals(25, map.get(5));
+		assertEquals(0, map.get(42));
+		assertEquals(-1, map.getOrDefault(42, -1));
+	}
+
+	@Test
+	void testPut() {
+		LongLongHashMap map = new LongLongHashMap();
+		assertEquals(0, map.put(7, 1));
+		assertEquals(1, map.put(7, 2));
+		assertEquals(2, map.get(7));
+		assertEquals(1, map.size());
+	}
+
+	@Test
+	void testRemove() {
+		LongLongHashMap map = new LongLongHashMap();
+		for(long i = 0; i < 10; ++i) {
+			map.put(i, i * i);
+		}
+		assertEquals(16, map.remove(4));
+		assertEquals(0, map.remove(4));
+		assertFalse(map.containsKey(4));
+		assertEquals(9, map.size());
+		assertEquals(81, map.get(9));
+	}
+
+	@Test
+	void testWideKeysAndResize() {
+		LongLongHashMap map = new LongLongHashMap();
+		int n = 10000;
+		for(long i = -n; i < n; ++i) {
+			map.put(i << 32, i);        // keys differing only in the high half
+		}
+		assertEquals(2 * n, map.size());
+		for(long i = -n; i < n; ++i) {
+			assertEquals(i, map.get(i << 32));
+		}
+		assertFalse(map.containsKey(1));
+	}
+
+	@Test
+	void testKeys() {
+		LongLongHashMap map = new LongLongHashMap();
+		map.put(3, 0);
+		map.put(1, 0);
+		map.put(Long.MIN_VALUE, 0);
+		map.remove(1);
+		long[] keys = map.keys();
+		Arrays.sort(keys);
+		assertEquals("[" + Long.MIN_VALUE + ", 3]", Arrays.toString(keys));
+	}
+
+	@Test
+	void testSlidingWindowChurn() {
+		LongLongHashMap map = new LongLongHashMap();
+		int window = 10000;
+		for(long i = 0; i < 400000; ++i) {
+			map.put(i, i);
+			if (i >= window) assertEquals(i - window, map.remove(i - window));
+			assertTrue(map.size() + map.defunct <= map.capacity / 2);
+		}
+		assertEquals(window, map.size());
+		assertEquals(399999, map.get(399999));
+	}
+
+}
@@ -0,0 +1,59 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class LongObjectHashMapTest {
+
+	@Test
+	void testGet() {
+		LongObjectHashMap<String> map = new LongObjectHashMap<>();
+		for(long i = 0; i < 10; ++i) {
+			map.put(i << 40, Long.toString(i));
+		}
+		assertEquals("5", map.get(5L << 40));
+		assertEquals(null, map.get(5L));
+	}
+
+	@Test
+	void testPut() {
+		LongObjectHashMap<String> map = new LongObjectHashMap<>();
+		assertEquals(null, map.put(Long.MAX_VALUE, "max"));
+		assertEquals("max", map.put(Long.MAX_VALUE, "MAX"));
+		assertEquals(null, map.put(Long.MIN_VALUE, "min"));
+		assertEquals("MAX", map.get(Long.MAX_VALUE));
+		assertEquals("min", map.get(Long.MIN_VALUE));
+		assertEquals(2, map.size());
+	}
+
+	@Test
+	void testRemove() {
+		LongObjectHashMap<String> map = new LongObjectHashMap<>();
+		int n = 1000;
+		for(long i = 0; i < n; ++i) {
+			map.put(i * 1_000_003L, Long.toString(i));
+		}
+		for(long i = 0; i < n; i += 2) {
+			assertEquals(Long.toString(i), map.remove(i * 1_000_003L));
+		}
+		assertEquals(n / 2, map.size());
+		for(long i = 1; i < n; i += 2) {
+			assertEquals(Long.toString(i), map.get(i * 1_000_003L));
+		}
+		assertFalse(map.isEmpty());
+	}
+
+	@Test
+	void testSlidingWindowChurn() {
+		LongObjectHashMap<String> map = new LongObjectHashMap<>();
+		int window = 1000;
+		for(long i = 0; i < 100000; ++i) {
+			map.put(i, Long.toString(i));
+			if (i >= window) assertEquals(Long.toString(i - window), map.remove(i - window));
+			assertTrue(map.size() + map.defunct <= map.capacity / 2);
+		}
+		assertEquals(window, map.size());
+		assertEquals("99999", map.get(99999L));
+		assertEquals(null, map.get(0L));
+	}
+
+}
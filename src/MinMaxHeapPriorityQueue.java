@@ -0,0 +1,300 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Random;
+
+/**
+ * An implementation of a double-ended priority queue using an array-based
+ * min-max heap.
+ * <p>
+ * Levels of the heap alternate between min levels (even depths, starting with
+ * the root) and max levels (odd depths). An entry on a min level has a key no
+ * greater than any key below it, and an entry on a max level a key no smaller
+ * than any key below it. The minimum is thus the root and the maximum is one of
+ * its children, and both can be removed in O(log n) time.
+ */
+public class MinMaxHeapPriorityQueue<K, V> extends AbstractPriorityQueue<K, V> {
+    private ArrayList<PQEntry<K, V>> heap = new ArrayList<PQEntry<K, V>>();
+
+    /**
+     * Creates an empty priority queue based on the natural ordering of its keys.
+     */
+    public MinMaxHeapPriorityQueue() {
+        super();
+    }
+
+    /**
+     * Creates an empty priority queue using the given comparator to order keys.
+     *
+     * @param comp comparator defining the order of keys in the priority queue
+     */
+    public MinMaxHeapPriorityQueue(Comparator<K> comp) {
+        super(comp);
+    }
+
+    // protected utilities
+    protected int parent(int j) {
+        return (j - 1) / 2;
+    }
+
+    protected int left(int j) {
+        return j * 2 + 1;
+    }
+
+    /**
+     * Returns true if index j lies on a min level (an even depth) of the heap.
+     */
+    protected boolean isMinLevel(int j) {
+        return (31 - Integer.numberOfLeadingZeros(j + 1)) % 2 == 0;
+    }
+
+    /**
+     * Exchanges the entries at indices i and j of the array list.
+     */
+    protected void swap(int i, int j) {
+        PQEntry<K, V> tmp = heap.get(i);
+        heap.set(i, heap.get(j));
+        heap.set(j, tmp);
+    }
+
+    /**
+     * Compares the entries at indices i and j, reversing the result on max levels
+     * so that "better" always means negative.
+     */
+    private int compareAt(int i, int j, boolean minLevel) {
+        int cmp = compare(heap.get(i), heap.get(j));
+        return minLevel ? cmp : -cmp;
+    }
+
+    /**
+     * Moves the entry at index j higher, if necessary, to restore the heap property.
+     */
+    protected void upheap(int j) {
+        if (j == 0) return;
+        int p = parent(j);
+        boolean minLevel = isMinLevel(j);
+        if (compareAt(p, j, minLevel) < 0) {    // belongs on the parent's kind of level
+            swap(j, p);
+            upheapAlong(p, !minLevel);
+        } else {
+            upheapAlong(j, minLevel);
+        }
+    }
+
+    /**
+     * Moves the entry at index j up through grandparents on its kind of level.
+     */
+    private void upheapAlong(int j, boolean minLevel) {
+        while (j > 2) {
+            int g = parent(parent(j));
+            if (compareAt(j, g, minLevel) >= 0) break;
+            swap(j, g);
+            j = g;
+        }
+    }
+
+    /**
+     * Moves the entry at index j lower, if necessary, to restore the heap property.
+     */
+    protected void downheap(int j) {
+        boolean minLevel = isMinLevel(j);
+        int n = heap.size();
+        while (left(j) < n) {
+            // find the best of the children and grandchildren
+            int best = left(j);
+            if (best + 1 < n && compareAt(best + 1, best, minLevel) < 0) best = best + 1;
+            for (int g = left(left(j)); g < n && g <= left(left(j)) + 3; ++g)
+                if (compareAt(g, best, minLevel) < 0) best = g;
+            if (compareAt(best, j, minLevel) >= 0) return;
+            swap(best, j);
+            if (best <= left(j) + 1) return;    // a child: it has no descendants of j's kind
+            if (compareAt(parent(best), best, minLevel) < 0)
+                swap(best, parent(best));       // keep the grandchild's parent level in order
+            j = best;
+        }
+    }
+
+    /**
+     * Returns the index of an entry with maximal key (the heap must not be empty).
+     */
+    private int maxIndex() {
+        int n = heap.size();
+        if (n == 1) return 0;
+        if (n == 2 || compare(heap.get(1), heap.get(2)) >= 0) return 1;
+        return 2;
+    }
+
+    /**
+     * Removes and returns the entry at index j, refilling it from the end.
+     */
+    private Entry<K, V> removeAt(int j) {
+        Entry<K, V> e = heap.get(j);
+        PQEntry<K, V> last = heap.remove(heap.size() - 1);
+        if (j < heap.size()) {
+            heap.set(j, last);
+            downheap(j);
+        }
+        return e;
+    }
+
+    // public methods
+
+    /**
+     * Returns the number of items in the priority queue.
+     *
+     * @return number of items
+     */
+    @Override
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * Returns (but does not remove) an entry with minimal key.
+     *
+     * @return entry having a minimal key (or null if empty)
+     */
+    @Override
+    public Entry<K, V> min() {
+        if (heap.isEmpty()) return null;
+        return heap.get(0);
+    }
+
+    /**
+     * Returns (but does not remove) an entry with maximal key.
+     *
+     * @return entry having a maximal key (or null if empty)
+     */
+    public Entry<K, V> max() {
+        if (heap.isEmpty()) return null;
+        return heap.get(maxIndex());
+    }
+
+    /**
+     * Inserts a key-value pair and return the entry created.
+     *
+     * @param key   the key of the new entry
+     * @param value the associated value of the new entry
+     * @return the entry storing the new key-value pair
+     * @throws IllegalArgumentException if the key is unacceptable for this queue
+     */
+    @Override
+    public Entry<K, V> insert(K key, V value) throws IllegalArgumentException {
+        checkKey(key);
+        PQEntry<K, V> e = new PQEntry<K, V>(key, value);
+        heap.add(e);
+        upheap(heap.size() - 1);
+        return e;
+    }
+
+    /**
+     * Removes and returns an entry with minimal key.
+     *
+     * @return the removed entry (or null if empty)
+     */
+    @Override
+    public Entry<K, V> removeMin() {
+        if (heap.isEmpty()) return null;
+        return removeAt(0);
+    }
+
+    /**
+     * Removes and returns an entry with maximal key.
+     *
+     * @return the removed entry (or null if empty)
+     */
+    public Entry<K, V> removeMax() {
+        if (heap.isEmpty()) return null;
+        return removeAt(maxIndex());
+    }
+
+    /**
+     * Used for debugging purposes only
+     */
+    private void sanityCheck() {
+        for (int j = 1; j < heap.size(); j++) {
+            int p = parent(j);
+            if (compareAt(j, p, isMinLevel(p)) < 0)
+                System.out.println("Invalid parent relationship at " + j);
+            if (p > 0 && compareAt(parent(p), j, isMinLevel(parent(p))) > 0)
+                System.out.println("Invalid grandparent relationship at " + j);
+        }
+    }
+
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append('[');
+        for (int j = 0; j < heap.size(); ++j) {
+            sb.append(heap.get(j).getValue());
+            if (j < heap.size() - 1) sb.append(", ");
+        }
+        sb.append(']');
+        return sb.toString();
+    }
+
+    // remainder of class is a simple sliding-window benchmark
+
+    /**
+     * Keeps a window of w orders, evicting alternately the lowest and the highest
+     * once the window is full, with a single min-max heap.
+     */
+    private static long minMaxWindow(Long[] keys, int w) {
+        MinMaxHeapPriorityQueue<Long, Long> pq = new MinMaxHeapPriorityQueue<>();
+        long sum = 0;
+        for (int i = 0; i < keys.length; ++i) {
+            pq.insert(keys[i], keys[i]);
+            if (pq.size() > w) sum += (i % 2 == 0 ? pq.removeMin() : pq.removeMax()).getKey();
+        }
+        return sum;
+    }
+
+    /**
+     * The same window kept with a min heap and a max heap over the same orders,
+     * where an order evicted through one heap is marked as deleted and skipped
+     * when it later surfaces in the other.
+     */
+    private static long twoHeapWindow(Long[] keys, int w) {
+        HeapPriorityQueue<Long, Integer> low = new HeapPriorityQueue<>();
+        HeapPriorityQueue<Long, Integer> high = new HeapPriorityQueue<>(new DefaultComparator<Long>().reversed());
+        HashSet<Integer> deleted = new HashSet<>();
+        int live = 0;
+        long sum = 0;
+        for (int i = 0; i < keys.length; ++i) {
+            low.insert(keys[i], i);             // the value identifies the order
+            high.insert(keys[i], i);
+            if (++live > w) {
+                HeapPriorityQueue<Long, Integer> pq = (i % 2 == 0 ? low : high);
+                while (deleted.remove(pq.min().getValue())) pq.removeMin();
+                Entry<Long, Integer> e = pq.removeMin();
+                deleted.add(e.getValue());
+                sum += e.getKey();
+                live--;
+            }
+        }
+        return sum;
+    }
+
+    public static void main(String[] args) {
+        MinMaxHeapPriorityQueue<Integer, String> pq = new MinMaxHeapPriorityQueue<>();
+        for (int i : new int[]{35, 26, 15, 24, 33, 4, 12, 1, 23, 21, 2, 5})
+            pq.insert(i, Integer.toString(i));
+        System.out.println("min-max heap: " + pq + "  min " + pq.min().getKey() + "  max " + pq.max().getKey());
+
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        Random rnd = new Random(19);
+        Long[] keys = new Long[n];
+        for (int i = 0; i < n; ++i) keys[i] = rnd.nextLong();
+        for (int w : new int[]{1_000, 100_000}) {
+            for (int round = 0; round < 3; ++round) {
+                long start = System.nanoTime();
+                long a = minMaxWindow(keys, w);
+                long single = System.nanoTime() - start;
+                start = System.nanoTime();
+                long b = twoHeapWindow(keys, w);
+                long pair = System.nanoTime() - start;
+                System.out.printf("window %6d: min-max heap %6.1f ns/op  two heaps + lazy deletion %6.1f ns/op (%b)%n",
+                        w, (double) single / n, (double) pair / n, a == b);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class MinMaxHeapPriorityQueueTest {
+
+	@Test
+	void testMinMax() {
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+		MinMaxHeapPriorityQueue<Integer, String> pq = new MinMaxHeapPriorityQueue<>();
+
+		assertNull(pq.min());
+		assertNull(pq.max());
+		for(Integer i : arr) pq.insert(i, Integer.toString(i));
+
+		assertEquals(12, pq.size());
+		assertEquals(1, pq.min().getKey());
+		assertEquals(35, pq.max().getKey());
+	}
+
+	@Test
+	void testRemoveBothEnds() {
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+		MinMaxHeapPriorityQueue<Integer, String> pq = new MinMaxHeapPriorityQueue<>();
+
+		for(Integer i : arr) pq.insert(i, Integer.toString(i));
+
+		StringBuilder sb = new StringBuilder();
+		while (!pq.isEmpty()) {
+			sb.append(pq.removeMin().getKey()).append(' ');
+			if (!pq.isEmpty()) sb.append(pq.removeMax().getKey()).append(' ');
+		}
+		assertEquals("1 35 2 33 4 26 5 24 12 23 15 21 ", sb.toString());
+		assertNull(pq.removeMax());
+	}
+
+	@Test
+	void testRandomAgainstTreeMap() {
+		MinMaxHeapPriorityQueue<Integer, Integer> pq = new MinMaxHeapPriorityQueue<>();
+		java.util.TreeMap<Integer, Integer> counts = new java.util.TreeMap<>();
+		java.util.Random rnd = new java.util.Random(23);
+		for(int i = 0; i < 20000; ++i) {
+			int op = rnd.nextInt(4);
+			if (op < 2 || counts.isEmpty()) {
+				int k = rnd.nextInt(1000);
+				pq.insert(k, i);
+				counts.merge(k, 1, Integer::sum);
+			} else {
+				int expected = (op == 2 ? counts.firstKey() : counts.lastKey());
+				int k = (op == 2 ? pq.removeMin() : pq.removeMax()).getKey();
+				assertEquals(expected, k);
+				if (counts.merge(k, -1, Integer::sum) == 0) counts.remove(k);
+			}
+			if (!counts.isEmpty()) {
+				assertEquals(counts.firstKey(), pq.min().getKey());
+				assertEquals(counts.lastKey(), pq.max().getKey());
+			}
+		}
+	}
+
+}
@@ -0,0 +1,281 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded, lock-free queue for any number of producer and consumer threads,
+ * laid out as a ring buffer of power-of-two capacity (after Dmitry Vyukov's
+ * bounded MPMC queue).
+ * <p>
+ * Every slot carries a sequence number telling which lap of the ring it is
+ * ready for: a slot at index i is free for the producer holding position p
+ * when its sequence equals p, and full for the consumer holding position p when
+ * it equals p + 1. A thread claims a position by a compare-and-set on the
+ * shared enqueue or dequeue counter, then writes or reads the slot and hands it
+ * on by advancing the slot's sequence, so producers and consumers contend only
+ * with their own kind and no operation allocates.
+ * <p>
+ * enqueue and dequeue behave as in ArrayQueue (enqueue throws when full);
+ * offer and poll never block, while put and take wait according to the
+ * queue's WaitStrategy. Null elements are not permitted.
+ */
+public class MpmcArrayQueue<E> implements Queue<E> {
+	//---------------- nested WaitStrategy class ----------------
+	/**
+	 * How a thread waits in put or take: spin a number of times, then yield a
+	 * number of times, then park for a fixed interval between attempts.
+	 */
+	public static final class WaitStrategy {
+		/** Spins forever; lowest latency, but burns a core per waiting thread. */
+		public static final WaitStrategy BUSY_SPIN = new WaitStrategy(Integer.MAX_VALUE, 0, 0);
+		/** Spins briefly, then yields the processor between attempts. */
+		public static final WaitStrategy YIELDING = new WaitStrategy(100, Integer.MAX_VALUE, 0);
+		/** Spins and yields briefly, then parks for 50 microseconds between attempts. */
+		public static final WaitStrategy PARKING = new WaitStrategy(100, 100, 50_000);
+
+		private final int spins;
+		private final int yields;
+		private final long parkNanos;
+
+		/**
+		 * @param spins     number of attempts separated by a spin-wait hint
+		 * @param yields    number of further attempts separated by Thread.yield
+		 * @param parkNanos time to park between all later attempts
+		 */
+		public WaitStrategy(int spins, int yields, long parkNanos) {
+			if (spins < 0 || yields < 0 || parkNanos < 0) throw new IllegalArgumentException();
+			this.spins = spins;
+			this.yields = yields;
+			this.parkNanos = parkNanos;
+		}
+
+		/** Waits before the given (0-based) retry. */
+		void idle(int attempt) {
+			if (attempt < spins) Thread.onSpinWait();
+			else if (attempt - spins < yields) Thread.yield();
+			else LockSupport.parkNanos(parkNanos);
+		}
+	} //----------- end of nested WaitStrategy class -----------
+
+	private final Object[] buffer;
+	private final AtomicLongArray sequence;    // sequence[i]: lap state of slot i
+	private final int mask;
+	private final AtomicLong enqueuePos = new AtomicLong();
+	private final AtomicLong dequeuePos = new AtomicLong();
+	private final WaitStrategy waitStrategy;
+
+	/**
+	 * Creates a queue holding at least the given number of elements, rounded up
+	 * to a power of two, that waits with the PARKING strategy.
+	 */
+	public MpmcArrayQueue(int capacity) {
+		this(capacity, WaitStrategy.PARKING);
+	}
+
+	/**
+	 * Creates a queue holding at least the given number of elements, rounded up
+	 * to a power of two, that waits with the given strategy.
+	 */
+	public MpmcArrayQueue(int capacity, WaitStrategy waitStrategy) {
+		if (capacity < 2 || capacity > 1 << 30) throw new IllegalArgumentException("Illegal capacity");
+		int cap = Integer.highestOneBit(capacity);
+		if (cap < capacity) cap <<= 1;
+		buffer = new Object[cap];
+		sequence = new AtomicLongArray(cap);
+		for (int i = 0; i < cap; ++i) sequence.set(i, i);
+		mask = cap - 1;
+		this.waitStrategy = waitStrategy;
+	}
+
+	/** Returns the number of slots in the queue. */
+	public int capacity() {
+		return buffer.length;
+	}
+
+	/**
+	 * Returns the number of elements in the queue; exact only when no operation
+	 * is in progress.
+	 */
+	@Override
+	public int size() {
+		long d = dequeuePos.get(), e = enqueuePos.get();
+		return (int) Math.max(0, Math.min(e - d, buffer.length));
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * Inserts an element if there is room, without waiting.
+	 *
+	 * @return true if the element was added, false if the queue is full
+	 */
+	public boolean offer(E e) {
+		if (e == null) throw new NullPointerException();
+		long pos = enqueuePos.get();
+		while (true) {
+			int i = (int) pos & mask;
+			long dif = sequence.get(i) - pos;
+			if (dif == 0) {                    // slot free on this lap: try to claim it
+				if (enqueuePos.compareAndSet(pos, pos + 1)) {
+					buffer[i] = e;
+					sequence.lazySet(i, pos + 1);  // publish to consumers
+					return true;
+				}
+				pos = enqueuePos.get();
+			} else if (dif < 0) {              // slot still full from the previous lap
+				return false;
+			} else {                           // another producer got here first
+				pos = enqueuePos.get();
+			}
+		}
+	}
+
+	/**
+	 * Removes and returns the first element, without waiting.
+	 *
+	 * @return the element removed (or null if empty)
+	 */
+	@SuppressWarnings({"unchecked"})
+	public E poll() {
+		long pos = dequeuePos.get();
+		while (true) {
+			int i = (int) pos & mask;
+			long dif = sequence.get(i) - (pos + 1);
+			if (dif == 0) {                    // slot filled on this lap: try to claim it
+				if (dequeuePos.compareAndSet(pos, pos + 1)) {
+					E e = (E) buffer[i];
+					buffer[i] = null;
+					sequence.lazySet(i, pos + buffer.length);  // free for the next lap
+					return e;
+				}
+				pos = dequeuePos.get();
+			} else if (dif < 0) {              // not yet filled
+				return null;
+			} else {                           // another consumer got here first
+				pos = dequeuePos.get();
+			}
+		}
+	}
+
+	/**
+	 * Inserts an element, waiting for room if necessary.
+	 *
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public void put(E e) throws InterruptedException {
+		for (int attempt = 0; !offer(e); ++attempt) {
+			if (Thread.interrupted()) throw new InterruptedException();
+			waitStrategy.idle(attempt);
+		}
+	}
+
+	/**
+	 * Removes and returns the first element, waiting for one if necessary.
+	 *
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public E take() throws InterruptedException {
+		E e;
+		for (int attempt = 0; (e = poll()) == null; ++attempt) {
+			if (Thread.interrupted()) throw new InterruptedException();
+			waitStrategy.idle(attempt);
+		}
+		return e;
+	}
+
+	@Override
+	public void enqueue(E e) {
+		if (!offer(e)) throw new IllegalStateException("Queue is full");
+	}
+
+	@Override
+	public E dequeue() {
+		return poll();
+	}
+
+	/**
+	 * Returns, but does not remove, the first element; under concurrent use the
+	 * result may already have been taken by the time it is returned.
+	 */
+	@Override
+	@SuppressWarnings({"unchecked"})
+	public E first() {
+		while (true) {
+			long pos = dequeuePos.get();
+			int i = (int) pos & mask;
+			if (sequence.get(i) != pos + 1) return null;   // not filled yet: empty
+			E e = (E) buffer[i];
+			if (e != null && dequeuePos.get() == pos) return e;
+		}
+	}
+
+	// remainder of class is a simple benchmark
+
+	/** Runs p producers and c consumers through the given put/take pair, returning Mops/s. */
+	private static double run(int p, int c, int total, java.util.function.Consumer<Integer> put,
+			java.util.function.Supplier<Integer> take) throws InterruptedException {
+		Thread[] threads = new Thread[p + c];
+		for (int t = 0; t < p; ++t) {
+			int share = total / p + (t < total % p ? 1 : 0);
+			threads[t] = new Thread(() -> {
+				for (int i = 0; i < share; ++i) put.accept(i);
+			});
+		}
+		for (int t = 0; t < c; ++t) {
+			int share = total / c + (t < total % c ? 1 : 0);
+			threads[p + t] = new Thread(() -> {
+				for (int i = 0; i < share; ++i) take.get();
+			});
+		}
+		long start = System.nanoTime();
+		for (Thread t : threads) t.start();
+		for (Thread t : threads) t.join();
+		return (double) total / (System.nanoTime() - start) * 1000;
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		int total = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+		int[] counts = {1, 2, 4, 8};
+		System.out.println("producers consumers  synchronized LinkedQueue  MpmcArrayQueue  (Mops/s)");
+		for (int p : counts) {
+			for (int c : counts) {
+				LinkedQueue<Integer> linked = new LinkedQueue<>();
+				double locked = run(p, c, total, e -> {
+					synchronized (linked) {
+						linked.enqueue(e);
+						linked.notify();
+					}
+				}, () -> {
+					synchronized (linked) {
+						while (linked.isEmpty()) {
+							try {
+								linked.wait();
+							} catch (InterruptedException ex) {
+								throw new IllegalStateException(ex);
+							}
+						}
+						return linked.dequeue();
+					}
+				});
+				MpmcArrayQueue<Integer> mpmc = new MpmcArrayQueue<>(1024, WaitStrategy.YIELDING);
+				double lockFree = run(p, c, total, e -> {
+					try {
+						mpmc.put(e);
+					} catch (InterruptedException ex) {
+						throw new IllegalStateException(ex);
+					}
+				}, () -> {
+					try {
+						return mpmc.take();
+					} catch (InterruptedException ex) {
+						throw new IllegalStateException(ex);
+					}
+				});
+				System.out.printf("%9d %9d  %24.2f  %14.2f%n", p, c, locked, lockFree);
+			}
+		}
+	}
+}
@@ -0,0 +1,78 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class MpmcArrayQueueTest {
+
+	@Test
+	void testOfferPoll() {
+		MpmcArrayQueue<Integer> q = new MpmcArrayQueue<>(3);
+		assertEquals(4, q.capacity());
+		for(int round = 0; round < 5; ++round) {
+			for(int i = 0; i < 4; ++i)
+				assertTrue(q.offer(i));
+			assertFalse(q.offer(4));
+			assertThrows(IllegalStateException.class, () -> q.enqueue(4));
+			assertEquals(4, q.size());
+			assertEquals(0, q.first());
+			for(int i = 0; i < 4; ++i)
+				assertEquals(i, q.dequeue());
+			assertNull(q.poll());
+			assertNull(q.first());
+		}
+	}
+
+	@Test
+	void testTakeWaitsForPut() throws InterruptedException {
+		MpmcArrayQueue<String> q = new MpmcArrayQueue<>(2);
+		Thread producer = new Thread(() -> {
+			try {
+				Thread.sleep(20);
+				q.put("a");
+				q.put("b");
+				q.put("c");  // waits until the consumer makes room
+			} catch (InterruptedException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		producer.start();
+		assertEquals("a", q.take());
+		assertEquals("b", q.take());
+		assertEquals("c", q.take());
+		producer.join();
+	}
+
+	@Test
+	void testManyProducersAndConsumers() throws InterruptedException {
+		MpmcArrayQueue<Integer> q = new MpmcArrayQueue<>(16, MpmcArrayQueue.WaitStrategy.YIELDING);
+		int producers = 3, consumers = 3, perProducer = 20000;
+		java.util.concurrent.atomic.AtomicLongArray seen = new java.util.concurrent.atomic.AtomicLongArray(producers * perProducer);
+		Thread[] threads = new Thread[producers + consumers];
+		for(int t = 0; t < producers; ++t) {
+			final int base = t * perProducer;
+			threads[t] = new Thread(() -> {
+				try {
+					for(int i = 0; i < perProducer; ++i) q.put(base + i);
+				} catch (InterruptedException e) {
+					throw new IllegalStateException(e);
+				}
+			});
+		}
+		for(int t = 0; t < consumers; ++t) {
+			threads[producers + t] = new Thread(() -> {
+				try {
+					for(int i = 0; i < perProducer; ++i) seen.incrementAndGet(q.take());
+				} catch (InterruptedException e) {
+					throw new IllegalStateException(e);
+				}
+			});
+		}
+		for(Thread t : threads) t.start();
+		for(Thread t : threads) t.join();
+
+		for(int i = 0; i < seen.length(); ++i)
+			assertEquals(1L, seen.get(i));
+		assertTrue(q.isEmpty());
+	}
+
+}
@@ -0,0 +1,229 @@
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A thread-safe, relaxed priority queue that spreads its entries over several
+ * independently locked heaps (a MultiQueue).
+ * <p>
+ * insert adds to a randomly chosen heap whose lock is free. removeMin looks at
+ * the minimum of two randomly chosen heaps and removes the smaller, so it
+ * returns an entry that is close to, but not necessarily, the minimum: the
+ * expected rank of the entry returned grows with the number of heaps, not
+ * with the number of entries. In exchange threads almost never wait for one
+ * another. With a single heap the queue is exact. SkipListPriorityQueue is the
+ * strict alternative.
+ */
+public class MultiQueue<K, V> extends AbstractPriorityQueue<K, V> {
+    //---------------- nested SubQueue class ----------------
+    /** A heap guarded by its own lock, publishing its minimum for lock-free peeks. */
+    private static class SubQueue<K, V> extends ReentrantLock {
+        private static final long serialVersionUID = 1L;
+
+        final HeapPriorityQueue<K, V> heap;
+        volatile Entry<K, V> top;                   // minimum of the heap (null if empty)
+
+        SubQueue(Comparator<K> comp) {
+            heap = new HeapPriorityQueue<>(comp);
+        }
+
+        /** Republishes the minimum; called with the lock held. */
+        void updateTop() {
+            top = heap.isEmpty() ? null : heap.min();
+        }
+    } //----------- end of nested SubQueue class -----------
+
+    private final SubQueue<K, V>[] queues;
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Creates an empty queue of the given number of heaps, based on the natural
+     * ordering of its keys. Two to four heaps per thread is a typical choice.
+     *
+     * @param heaps number of heaps (at least 1)
+     */
+    public MultiQueue(int heaps) {
+        this(heaps, new DefaultComparator<K>());
+    }
+
+    /**
+     * Creates an empty queue of the given number of heaps, using the given
+     * comparator to order keys.
+     *
+     * @param heaps number of heaps (at least 1)
+     * @param comp  comparator defining the order of keys in the priority queue
+     */
+    @SuppressWarnings({"unchecked"})
+    public MultiQueue(int heaps, Comparator<K> comp) {
+        super(comp);
+        if (heaps < 1) throw new IllegalArgumentException("Need at least one heap");
+        queues = (SubQueue<K, V>[]) new SubQueue<?, ?>[heaps];
+        for (int i = 0; i < heaps; ++i) queues[i] = new SubQueue<>(comp);
+    }
+
+    // public methods
+
+    /**
+     * Returns the number of items in the priority queue. The result is exact
+     * when no update is in progress.
+     *
+     * @return number of items
+     */
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Returns (but does not remove) an entry with minimal key, by scanning the
+     * published minimum of every heap.
+     *
+     * @return entry having a minimal key (or null if empty)
+     */
+    @Override
+    public Entry<K, V> min() {
+        Entry<K, V> best = null;
+        for (SubQueue<K, V> q : queues) {
+            Entry<K, V> e = q.top;
+            if (e != null && (best == null || compare(e, best) < 0)) best = e;
+        }
+        return best;
+    }
+
+    /**
+     * Inserts a key-value pair into a randomly chosen heap and return the entry
+     * created.
+     *
+     * @param key   the key of the new entry
+     * @param value the associated value of the new entry
+     * @return the entry storing the new key-value pair
+     * @throws IllegalArgumentException if the key is unacceptable for this queue
+     */
+    @Override
+    public Entry<K, V> insert(K key, V value) throws IllegalArgumentException {
+        checkKey(key);
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        while (true) {
+            SubQueue<K, V> q = queues[rnd.nextInt(queues.length)];
+            if (!q.tryLock()) continue;             // busy: try another heap
+            try {
+                Entry<K, V> e = q.heap.insert(key, value);
+                q.updateTop();
+                size.incrementAndGet();
+                return e;
+            } finally {
+                q.unlock();
+            }
+        }
+    }
+
+    /**
+     * Removes and returns an entry with a small key: the smaller of the minima of
+     * two randomly chosen heaps.
+     *
+     * @return the removed entry (or null if empty)
+     */
+    @Override
+    public Entry<K, V> removeMin() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        while (true) {
+            SubQueue<K, V> a = queues[rnd.nextInt(queues.length)];
+            SubQueue<K, V> b = queues[rnd.nextInt(queues.length)];
+            Entry<K, V> ea = a.top, eb = b.top;
+            if (ea == null && eb == null) {
+                if (size.get() == 0) return null;
+                Entry<K, V> e = removeFromAny();    // both sampled heaps empty: look everywhere
+                if (e != null) return e;
+                continue;
+            }
+            SubQueue<K, V> q = (eb == null || (ea != null && compare(ea, eb) <= 0)) ? a : b;
+            if (!q.tryLock()) continue;             // busy: sample again
+            try {
+                if (q.heap.isEmpty()) continue;     // emptied since it was sampled
+                Entry<K, V> e = q.heap.removeMin();
+                q.updateTop();
+                size.decrementAndGet();
+                return e;
+            } finally {
+                q.unlock();
+            }
+        }
+    }
+
+    /** Removes the minimum of the first non-empty heap found, or returns null. */
+    private Entry<K, V> removeFromAny() {
+        for (SubQueue<K, V> q : queues) {
+            if (q.top == null) continue;
+            q.lock();
+            try {
+                if (q.heap.isEmpty()) continue;
+                Entry<K, V> e = q.heap.removeMin();
+                q.updateTop();
+                size.decrementAndGet();
+                return e;
+            } finally {
+                q.unlock();
+            }
+        }
+        return null;
+    }
+
+    // remainder of class is a simple scalability benchmark
+
+    /** Wraps a priority queue so that every operation holds one global lock. */
+    private static <K, V> PriorityQueue<K, V> globalLock(PriorityQueue<K, V> pq) {
+        return new PriorityQueue<K, V>() {
+            public synchronized int size() { return pq.size(); }
+            public synchronized boolean isEmpty() { return pq.isEmpty(); }
+            public synchronized Entry<K, V> insert(K key, V value) { return pq.insert(key, value); }
+            public synchronized Entry<K, V> min() { return pq.min(); }
+            public synchronized Entry<K, V> removeMin() { return pq.isEmpty() ? null : pq.removeMin(); }
+        };
+    }
+
+    /**
+     * Runs a 50% insert / 50% removeMin mix of random deadlines on a queue
+     * prefilled with 100,000 entries, and returns millions of operations per second.
+     */
+    private static double throughput(PriorityQueue<Long, Long> pq, int threads, int opsPerThread)
+            throws InterruptedException {
+        Random rnd = new Random(29);
+        for (int i = 0; i < 100_000; ++i) pq.insert(rnd.nextLong(), 0L);
+        AtomicLong checksum = new AtomicLong();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; ++t) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom r = ThreadLocalRandom.current();
+                long sum = 0;
+                for (int i = 0; i < opsPerThread; ++i) {
+                    if (r.nextBoolean()) pq.insert(r.nextLong(), (long) i);
+                    else {
+                        Entry<Long, Long> e = pq.removeMin();
+                        if (e != null) sum += e.getValue();
+                    }
+                }
+                checksum.addAndGet(sum);
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread w : workers) w.start();
+        for (Thread w : workers) w.join();
+        long elapsed = System.nanoTime() - start;
+        return (double) threads * opsPerThread / elapsed * 1000;    // million ops per second
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int ops = 200_000;
+        System.out.println("threads  synchronized heap  SkipListPriorityQueue  MultiQueue(4/thread)  (Mops/s)");
+        for (int t = 1; t <= maxThreads; t *= 2) {
+            System.out.printf("%7d  %17.2f  %21.2f  %20.2f%n", t,
+                    throughput(globalLock(new HeapPriorityQueue<>()), t, ops),
+                    throughput(new SkipListPriorityQueue<>(), t, ops),
+                    throughput(new MultiQueue<>(4 * t), t, ops));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class MultiQueueTest {
+
+	@Test
+	void testSingleHeapIsExact() {
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+		MultiQueue<Integer, String> pq = new MultiQueue<>(1);
+
+		for(Integer i : arr) pq.insert(i, Integer.toString(i));
+
+		assertEquals(1, pq.min().getKey());
+		StringBuilder sb = new StringBuilder();
+		while (!pq.isEmpty()) sb.append(pq.removeMin().getKey()).append(' ');
+		assertEquals("1 2 4 5 12 15 21 23 24 26 33 35 ", sb.toString());
+		assertNull(pq.removeMin());
+	}
+
+	@Test
+	void testRelaxedDrainsEverything() throws InterruptedException {
+		MultiQueue<Integer, Integer> pq = new MultiQueue<>(8);
+		int threads = 4, perThread = 5000;
+		Thread[] workers = new Thread[threads];
+		for(int t = 0; t < threads; ++t) {
+			final int base = t * perThread;
+			workers[t] = new Thread(() -> {
+				for(int i = 0; i < perThread; ++i) pq.insert(base + i, base + i);
+			});
+			workers[t].start();
+		}
+		for(Thread w : workers) w.join();
+
+		assertEquals(threads * perThread, pq.size());
+		assertEquals(0, pq.min().getKey());
+		boolean[] seen = new boolean[threads * perThread];
+		Entry<Integer, Integer> e;
+		while ((e = pq.removeMin()) != null) {
+			assertFalse(seen[e.getKey()]);
+			seen[e.getKey()] = true;
+		}
+		for(boolean s : seen) assertTrue(s);
+		assertEquals(0, pq.size());
+	}
+
+}
@@ -0,0 +1,283 @@
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/*
+ * Map implementation using hash table with linear probing (open addressing).
+ */
+
+public class ProbeHashMap<K, V> extends AbstractHashMap<K, V> {
+	// flat parallel arrays of keys and values, indexed by slot
+	private Object[] keys; // initialized within createTable
+	private Object[] vals;
+	// the previous arrays, while an incremental rehash drains them (null otherwise)
+	private Object[] retiredKeys;
+	private Object[] retiredVals;
+	private int defunct = 0; // number of DEFUNCT slots in the current arrays
+
+	// sentinel marking a slot whose entry has been removed (a "tombstone")
+	private static final Object DEFUNCT = new Object();
+
+	/** Creates a hash table with capacity 17 and prime factor 109345121. */
+	public ProbeHashMap() {
+		super();
+	}
+
+	/** Creates a hash table with given capacity and prime factor 109345121. */
+	public ProbeHashMap(int cap) {
+		super(cap);
+	}
+
+	/** Creates a hash table with the given capacity and prime factor. */
+	public ProbeHashMap(int cap, int p) {
+		super(cap, p);
+	}
+
+	/** Creates an empty table having length equal to current capacity. */
+	@Override
+	protected void createTable() {
+		keys = new Object[capacity];
+		vals = new Object[capacity];
+		defunct = 0;
+	}
+
+	/** Counts the tombstones too, so that put rebuilds the table before they fill it. */
+	@Override
+	protected int occupancy() {
+		return size + defunct;
+	}
+
+	/** Returns true if location is either empty or the "defunct" sentinel. */
+	private boolean isAvailable(int j) {
+		return (keys[j] == null || keys[j] == DEFUNCT);
+	}
+
+	/**
+	 * Returns index with key k, or -(a+1) such that k could be added at index a.
+	 * The probe stops at the first truly empty slot; tombstones are skipped but
+	 * the first one seen is remembered as the preferred insertion point.
+	 */
+	private int findSlot(int h, K k) {
+		int avail = -1; // no slot available (thus far)
+		int j = h; // index while scanning table
+		do {
+			if (isAvailable(j)) {
+				if (avail == -1) avail = j; // this is the first available slot
+				if (keys[j] == null) break; // if empty, search fails immediately
+			} else if (keys[j].equals(k)) {
+				return j; // successful match
+			}
+			j = (j + 1) % capacity; // keep looking (cyclically)
+		} while (j != h); // stop if we return to the start
+		return -(avail + 1); // search has failed
+	}
+
+	/**
+	 * Returns value associated with key k in bucket with hash value h. If no such
+	 * entry exists, returns null.
+	 *
+	 * @param h the hash value of the relevant bucket
+	 * @param k the key of interest
+	 * @return associate value (or null, if no such entry)
+	 */
+	@Override
+	@SuppressWarnings({ "unchecked" })
+	protected V bucketGet(int h, K k) {
+		int j = findSlot(h, k);
+		if (j < 0) return null; // no match found
+		return (V) vals[j];
+	}
+
+	/**
+	 * Associates key k with value v in bucket with hash value h, returning the
+	 * previously associated value, if any.
+	 *
+	 * @param h the hash value of the relevant bucket
+	 * @param k the key of interest
+	 * @param v the value to be associated
+	 * @return previous value associated with k (or null, if no such entry)
+	 */
+	@Override
+	@SuppressWarnings({ "unchecked" })
+	protected V bucketPut(int h, K k, V v) {
+		int j = findSlot(h, k);
+		if (j >= 0) { // this key has an existing entry
+			V old = (V) vals[j];
+			vals[j] = v;
+			return old;
+		}
+		j = -(j + 1); // convert to proper index
+		if (keys[j] == DEFUNCT) defunct--; // reusing a tombstone
+		keys[j] = k;
+		vals[j] = v;
+		size++;
+		return null;
+	}
+
+	/**
+	 * Removes entry having key k from bucket with hash value h, returning the
+	 * previously associated value, if found.
+	 *
+	 * @param h the hash value of the relevant bucket
+	 * @param k the key of interest
+	 * @return previous value associated with k (or null, if no such entry)
+	 */
+	@Override
+	@SuppressWarnings({ "unchecked" })
+	protected V bucketRemove(int h, K k) {
+		int j = findSlot(h, k);
+		if (j < 0) return null; // nothing to remove
+		V answer = (V) vals[j];
+		keys[j] = DEFUNCT; // mark this slot as deactivated
+		vals[j] = null;
+		size--;
+		defunct++;
+		return answer;
+	}
+
+	/** Sets the current arrays aside while an incremental rehash drains them. */
+	@Override
+	protected void retireTable() {
+		retiredKeys = keys;
+		retiredVals = vals;
+	}
+
+	/**
+	 * Clears the probe run of the retired table starting at slot j, up to the
+	 * first empty slot, and returns its entries. Clearing the whole run keeps
+	 * every key that a probe from j could reach out of the retired table, so
+	 * later probes from earlier slots still stop correctly at the gap.
+	 *
+	 * @param j index of a slot of the retired table
+	 * @return the entries removed from the retired table
+	 */
+	@Override
+	@SuppressWarnings({ "unchecked" })
+	protected Iterable<Entry<K, V>> drainBucket(int j) {
+		ArrayList<Entry<K, V>> entries = new ArrayList<>();
+		int n = retiredKeys.length;
+		for (int i = j; retiredKeys[i] != null; i = (i + 1) % n) {
+			if (retiredKeys[i] != DEFUNCT) entries.add(new MapEntry<>((K) retiredKeys[i], (V) retiredVals[i]));
+			retiredKeys[i] = null;
+			retiredVals[i] = null;
+		}
+		return entries;
+	}
+
+	/** Discards the retired arrays once every slot has been drained. */
+	@Override
+	protected void releaseRetiredTable() {
+		retiredKeys = null;
+		retiredVals = null;
+	}
+
+	// ---------------- nested EntryIterator class ----------------
+	/**
+	 * Walks the slot arrays in place, so iteration needs no snapshot of the
+	 * table. Fails fast if the map is structurally modified other than through
+	 * the iterator's own remove().
+	 */
+	private class EntryIterator implements Iterator<Entry<K, V>> {
+		private int j = 0; // slot holding the next entry
+		private int last = -1; // slot of the entry last returned (-1 if none)
+		private int expectedModCount;
+
+		EntryIterator() {
+			finishRehash(); // walk a single table
+			expectedModCount = modCount;
+			advance();
+		}
+
+		/** Moves j forward to the next occupied slot, if any. */
+		private void advance() {
+			while (j < capacity && isAvailable(j)) j++;
+		}
+
+		public boolean hasNext() {
+			return j < capacity;
+		}
+
+		@SuppressWarnings({ "unchecked" })
+		public Entry<K, V> next() {
+			if (modCount != expectedModCount) throw new ConcurrentModificationException();
+			if (!hasNext()) throw new NoSuchElementException("No further entries");
+			last = j++;
+			advance();
+			return new MapEntry<>((K) keys[last], (V) vals[last]);
+		}
+
+		public void remove() {
+			if (last == -1) throw new IllegalStateException("nothing to remove");
+			if (modCount != expectedModCount) throw new ConcurrentModificationException();
+			keys[last] = DEFUNCT; // mark this slot as deactivated
+			vals[last] = null;
+			size--;
+			defunct++; // reclaimed by the next put that finds the table too occupied
+			expectedModCount = ++modCount;
+			last = -1;
+		}
+	} // ----------- end of nested EntryIterator class -----------
+
+	// ---------------- nested EntryIterable class ----------------
+	private class EntryIterable implements Iterable<Entry<K, V>> {
+		public Iterator<Entry<K, V>> iterator() {
+			return new EntryIterator();
+		}
+	} // ----------- end of nested EntryIterable class -----------
+
+	/**
+	 * Returns an iterable collection of all key-value entries of the map. The
+	 * entries are produced lazily, directly from the slot arrays.
+	 *
+	 * @return iterable collection of the map's entries
+	 */
+	@Override
+	public Iterable<Entry<K, V>> entrySet() {
+		return new EntryIterable();
+	}
+
+	/** Times n puts, gets and removes on the given map and reports bytes per entry. */
+	private static void benchmark(String name, AbstractHashMap<Integer, Integer> m, Integer[] keys) {
+		int n = keys.length;
+		long before = Benchmarks.usedMemory();
+		long start = System.nanoTime();
+		for (Integer k : keys) m.put(k, k);
+		long put = System.nanoTime() - start;
+		long bytes = Benchmarks.usedMemory() - before;
+
+		start = System.nanoTime();
+		long sum = 0;
+		for (Integer k : keys) sum += m.get(k);
+		long get = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		for (Integer k : keys) m.remove(k);
+		long remove = System.nanoTime() - start;
+
+		System.out.printf("%-14s put %6.1f ns/op  get %6.1f ns/op  remove %6.1f ns/op  ~%d bytes/entry (%d)%n", name,
+				(double) put / n, (double) get / n, (double) remove / n, bytes / n, sum);
+	}
+
+	public static void main(String[] args) {
+		ProbeHashMap<Integer, String> m = new ProbeHashMap<Integer, String>();
+		m.put(1, "One");
+		m.put(10, "Ten");
+		m.put(11, "Eleven");
+		m.put(20, "Twenty");
+
+		System.out.println("m: " + m.keySet());
+
+		m.remove(11);
+		System.out.println("m: " + m.keySet());
+
+		// simple throughput / footprint comparison against separate chaining
+		int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+		Integer[] keys = new Integer[n];
+		for (int i = 0; i < n; ++i) keys[i] = i * 31;
+		for (int round = 0; round < 3; ++round) {
+			benchmark("ChainHashMap", new ChainHashMap<>(), keys);
+			benchmark("ProbeHashMap", new ProbeHashMap<>(), keys);
+		}
+	}
+}
@@ -0,0 +1,220 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+
+import org.junit.jupiter.api.Test;
+
+class ProbeHashMapTest {
+
+	@Test
+	void testSize() {
+		ProbeHashMap<Integer, String> map = new ProbeHashMap<Integer, String>();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(i, Integer.toString(i));
+		}
+		assertEquals(n, map.size());
+	}
+
+	@Test
+	void testGet() {
+		ProbeHashMap<String, Integer> map = new ProbeHashMap<String, Integer>();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(Integer.toString(i), i);
+		}
+		assertEquals(5, map.get("5"));
+		assertEquals(2, map.get("2"));
+		assertEquals(null, map.get("42"));
+	}
+
+	@Test
+	void testPut() {
+		ProbeHashMap<String, Integer> map = new ProbeHashMap<String, Integer>();
+
+		assertEquals(null, map.put("one", 1));
+		assertEquals(1, map.put("one", 11));
+		assertEquals(11, map.get("one"));
+		assertEquals(1, map.size());
+	}
+
+	@Test
+	void testRemove() {
+		ProbeHashMap<String, Integer> map = new ProbeHashMap<String, Integer>();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(Integer.toString(i), i);
+		}
+		assertEquals(5, map.remove("5"));
+		assertEquals(null, map.remove("5"));
+		assertEquals(n-1, map.size());
+	}
+
+	/** A key whose instances all share the same hash code. */
+	private static class Collider {
+		private final int id;
+		Collider(int id) { this.id = id; }
+		public int hashCode() { return 7; }
+		public boolean equals(Object o) { return o instanceof Collider && ((Collider) o).id == id; }
+	}
+
+	@Test
+	void testRemoveKeepsProbeChain() {
+		ProbeHashMap<Collider, Integer> map = new ProbeHashMap<Collider, Integer>();
+
+		int n = 40;
+		for(int i = 0; i < n; ++i) {
+			map.put(new Collider(i), i);
+		}
+		for(int i = 0; i < n; i += 2) {
+			map.remove(new Collider(i));
+		}
+		for(int i = 1; i < n; i += 2) {
+			assertEquals(i, map.get(new Collider(i)));
+		}
+		assertEquals(null, map.get(new Collider(0)));
+		assertEquals(n / 2, map.size());
+	}
+
+	@Test
+	void testResize() {
+		ProbeHashMap<Integer, Integer> map = new ProbeHashMap<Integer, Integer>();
+
+		int n = 10000;
+		for(int i = 0; i < n; ++i) {
+			map.put(i, -i);
+		}
+		assertEquals(n, map.size());
+		for(int i = 0; i < n; ++i) {
+			assertEquals(-i, map.get(i));
+		}
+	}
+
+	@Test
+	void testKeySet() {
+		ProbeHashMap<String, Integer> map = new ProbeHashMap<String, Integer>();
+
+		map.put("one", 1);
+		map.put("two", 2);
+		map.put("three", 3);
+		ArrayList<String> buf = new ArrayList<>();
+		for(String s : map.keySet()) buf.add(s);
+		buf.sort(new DefaultComparator<String>());
+		assertEquals("[one, three, two]", buf.toString());
+	}
+
+	@Test
+	void testValues() {
+		ProbeHashMap<String, Integer> map = new ProbeHashMap<String, Integer>();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(Integer.toString(i), i);
+		}
+		ArrayList<Integer> buf = new ArrayList<>();
+		for(Integer s : map.values()) buf.add(s);
+		buf.sort(new DefaultComparator<Integer>());
+		assertEquals("[0, 1, 2, 3, 4, 5, 6, 7, 8, 9]", buf.toString());
+	}
+
+	@Test
+	void testIncrementalRehash() {
+		ProbeHashMap<Integer, Integer> map = new ProbeHashMap<Integer, Integer>();
+		map.setIncrementalRehash(2);
+
+		int n = 5000;
+		boolean sawRehash = false;
+		for(int i = 0; i < n; ++i) {
+			map.put(i, i);
+			sawRehash |= map.isRehashing();
+			if (i % 7 == 0) assertEquals(i / 2, map.get(i / 2));
+		}
+		assertTrue(sawRehash);
+		for(int i = 0; i < n; i += 3) {
+			assertEquals(i, map.remove(i));
+		}
+		int count = 0;
+		for(Integer k : map.keySet()) count++;
+		assertEquals(map.size(), count);
+		for(int i = 0; i < n; ++i) {
+			assertEquals(i % 3 == 0 ? null : i, map.get(i));
+		}
+	}
+
+	@Test
+	void testIteratorRemove() {
+		ProbeHashMap<Integer, Integer> map = new ProbeHashMap<Integer, Integer>();
+
+		int n = 100;
+		for(int i = 0; i < n; ++i) {
+			map.put(i, i);
+		}
+		for(Iterator<Entry<Integer, Integer>> it = map.entrySet().iterator(); it.hasNext(); ) {
+			if (it.next().getKey() % 2 == 0) it.remove();
+		}
+		assertEquals(n / 2, map.size());
+		ArrayList<Integer> buf = new ArrayList<>();
+		for(Integer k : map.keySet()) buf.add(k);
+		assertEquals(n / 2, buf.size());
+		for(Integer k : buf) assertTrue(k % 2 == 1);
+	}
+
+	@Test
+	void testIteratorFailFast() {
+		ProbeHashMap<Integer, Integer> map = new ProbeHashMap<Integer, Integer>();
+
+		map.put(1, 1);
+		map.put(2, 2);
+		Iterator<Integer> it = map.keySet().iterator();
+		it.next();
+		map.put(3, 3);
+		assertThrows(ConcurrentModificationException.class, () -> it.next());
+	}
+
+	@Test
+	void testChurnReclaimsTombstones() {
+		ProbeHashMap<Integer, Integer> map = new ProbeHashMap<Integer, Integer>();
+		int n = 100000;
+		for(int i = 0; i < n; ++i)
+			map.put(i, i);
+		for(int i = 0; i < n; ++i)
+			map.remove(i);
+		// distinct put/remove pairs would leave a tombstone in every slot
+		for(int i = n; i < 5 * n; ++i) {
+			map.put(i, i);
+			assertEquals(i, map.remove(i));
+			assertTrue(map.occupancy() <= map.capacity / 2);
+		}
+		map.put(-1, -1);
+		assertEquals(1, map.size());
+		assertEquals(-1, map.get(-1));
+	}
+
+	@Test
+	void testChurnRehashIsBounded() {
+		ProbeHashMap<Integer, Integer> map = new ProbeHashMap<Integer, Integer>();
+		map.setIncrementalRehash(8);
+		int window = 30000;
+		long most = 0;
+		for(int i = 0; i < 20 * window; ++i) {
+			long before = map.bucketsMigrated();
+			map.put(i, i);
+			most = Math.max(most, map.bucketsMigrated() - before);
+			if (i < window) continue;
+			before = map.bucketsMigrated();
+			assertEquals(i - window, map.remove(i - window));
+			most = Math.max(most, map.bucketsMigrated() - before);
+		}
+		// own bucket plus the step, never a synchronous rebuild of the table
+		assertTrue(most <= 9, "buckets migrated by one operation: " + most);
+		assertEquals(window, map.size());
+		for(int i = 19 * window; i < 20 * window; i += 101)
+			assertEquals(i, map.get(i));
+	}
+
+}
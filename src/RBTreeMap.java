@@ -0,0 +1,165 @@
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * An implementation of a sorted map using a red-black tree.
+ */
+
+public class RBTreeMap<K, V> extends TreeMap<K, V> {
+
+	/** Constructs an empty map using the natural ordering of keys. */
+	public RBTreeMap() {
+		super();
+	}
+
+	/**
+	 * Constructs an empty map using the given comparator to order keys.
+	 *
+	 * @param comp comparator defining the order of keys in the map
+	 */
+	public RBTreeMap(Comparator<K> comp) {
+		super(comp);
+	}
+
+	// we use the inherited aux field with convention that 0=black and 1=red
+	// (note that new leaves will be black by default, as aux=0)
+	boolean isBlack(Position<Entry<K, V>> p) {
+		return tree.getAux(p) == 0;
+	}
+
+	private boolean isRed(Position<Entry<K, V>> p) {
+		return tree.getAux(p) == 1;
+	}
+
+	private void makeBlack(Position<Entry<K, V>> p) {
+		tree.setAux(p, 0);
+	}
+
+	private void makeRed(Position<Entry<K, V>> p) {
+		tree.setAux(p, 1);
+	}
+
+	private void setColor(Position<Entry<K, V>> p, boolean toRed) {
+		tree.setAux(p, toRed ? 1 : 0);
+	}
+
+	/** Overrides the TreeMap rebalancing hook that is called after an insertion. */
+	@Override
+	protected void rebalanceInsert(Position<Entry<K, V>> p) {
+		if (!isRoot(p)) {
+			makeRed(p); // the new internal node is initially colored red
+			resolveRed(p); // but this may cause a double-red problem
+		}
+	}
+
+	/** Remedies potential double-red violation above red position p. */
+	private void resolveRed(Position<Entry<K, V>> p) {
+		Position<Entry<K, V>> parent, uncle, middle, grand; // used in case analysis
+		parent = parent(p);
+		if (isRed(parent)) { // double-red problem exists
+			uncle = sibling(parent);
+			if (isBlack(uncle)) { // Case 1: misshapen 4-node
+				middle = restructure(p); // do trinode restructuring
+				makeBlack(middle);
+				makeRed(left(middle));
+				makeRed(right(middle));
+			} else { // Case 2: overfull 5-node
+				makeBlack(parent); // perform recoloring
+				makeBlack(uncle);
+				grand = parent(parent);
+				if (!isRoot(grand)) {
+					makeRed(grand); // grandparent becomes red
+					resolveRed(grand); // recur at red grandparent
+				}
+			}
+		}
+	}
+
+	/** Overrides the TreeMap rebalancing hook that is called after a deletion. */
+	@Override
+	protected void rebalanceDelete(Position<Entry<K, V>> p) {
+		if (isRed(p)) // deleted parent was black
+			makeBlack(p); // so this restores black depth
+		else if (!isRoot(p)) {
+			Position<Entry<K, V>> sib = sibling(p);
+			if (isInternal(sib) && (isBlack(sib) || isInternal(left(sib))))
+				remedyDoubleBlack(p); // sib's subtree has nonzero black height
+		}
+	}
+
+	/** Remedies a presumed double-black violation at the given (nonroot) position. */
+	private void remedyDoubleBlack(Position<Entry<K, V>> p) {
+		Position<Entry<K, V>> z = parent(p);
+		Position<Entry<K, V>> y = sibling(p);
+		if (isBlack(y)) {
+			if (isRed(left(y)) || isRed(right(y))) { // Case 1: trinode restructuring
+				Position<Entry<K, V>> x = (isRed(left(y)) ? left(y) : right(y));
+				Position<Entry<K, V>> middle = restructure(x);
+				setColor(middle, isRed(z)); // root of restructured subtree gets z's old color
+				makeBlack(left(middle));
+				makeBlack(right(middle));
+			} else { // Case 2: recoloring
+				makeRed(y);
+				if (isRed(z))
+					makeBlack(z); // problem is resolved
+				else if (!isRoot(z))
+					remedyDoubleBlack(z); // propagate the problem
+			}
+		} else { // Case 3: reorient 3-node
+			rotate(y);
+			makeBlack(y);
+			makeRed(z);
+			remedyDoubleBlack(p); // restart the process at p
+		}
+	}
+
+	/** Ensure that current tree structure is valid red-black (for debug use only). */
+	private boolean sanityCheck() {
+		return isRed(root()) ? false : blackHeight(root()) >= 0;
+	}
+
+	/**
+	 * Returns the black height of p's subtree, or -1 if a red-black property
+	 * fails there (for testing only).
+	 */
+	int blackHeight(Position<Entry<K, V>> p) {
+		if (isExternal(p)) return isBlack(p) ? 1 : -1;
+		if (isRed(p) && (isRed(left(p)) || isRed(right(p)))) return -1;
+		int l = blackHeight(left(p));
+		int r = blackHeight(right(p));
+		if (l < 0 || r < 0 || l != r) return -1;
+		return l + (isBlack(p) ? 1 : 0);
+	}
+
+	/** Runs an insert/delete-heavy random mix on the given map and returns ns per operation. */
+	private static double mix(TreeMap<Integer, Integer> m, int ops, int keyRange) {
+		Random rnd = new Random(42);
+		long start = System.nanoTime();
+		for (int i = 0; i < ops; ++i) {
+			int k = rnd.nextInt(keyRange);
+			int choice = rnd.nextInt(10);
+			if (choice < 4) m.put(k, i); // 40% insert
+			else if (choice < 8) m.remove(k); // 40% delete
+			else m.get(k); // 20% lookup
+		}
+		return (double) (System.nanoTime() - start) / ops;
+	}
+
+	public static void main(String[] args) {
+		RBTreeMap<Integer, Integer> rb = new RBTreeMap<>();
+		Integer[] arr = new Integer[] { 44, 17, 88, 8, 32, 65, 97, 28, 54, 82, 93, 21, 29, 76, 80 };
+		for (Integer i : arr) {
+			rb.put(i, i);
+		}
+		rb.remove(arr[0]);
+		System.out.println("rb: " + rb.entrySet() + " valid: " + rb.sanityCheck());
+
+		int ops = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+		int keyRange = 200_000;
+		for (int round = 0; round < 3; ++round) {
+			System.out.printf("TreeMap %.1f  AVLTreeMap %.1f  SplayTreeMap %.1f  RBTreeMap %.1f  (ns/op)%n",
+					mix(new TreeMap<>(), ops, keyRange), mix(new AVLTreeMap<>(), ops, keyRange),
+					mix(new SplayTreeMap<>(), ops, keyRange), mix(new RBTreeMap<>(), ops, keyRange));
+		}
+	}
+}
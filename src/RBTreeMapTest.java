@@ -0,0 +1,201 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class RBTreeMapTest {
+
+	@Test
+	void testGet() {
+		RBTreeMap<Integer, String> map = new RBTreeMap<>();
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+		assertEquals("15", map.get(15));
+		assertEquals("24", map.get(24));
+		assertEquals(null, map.get(-1));
+	}
+
+	@Test
+	void testPut() {
+		RBTreeMap<Integer, String> map = new RBTreeMap<>();
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+
+		assertEquals("[1, 2, 4, 5, 12, 15, 21, 23, 24, 26, 33, 35]", map.keySet().toString());
+	}
+
+	@Test
+	void testRemoveK() {
+		RBTreeMap<Integer, String> map = new RBTreeMap<>();
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+
+		assertEquals(12, map.size());
+		assertEquals("26", map.remove(26));
+		assertEquals(11, map.size());
+	}
+
+	@Test
+	void testFirstEntry() {
+		RBTreeMap<Integer, String> map = new RBTreeMap<>();
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+
+		assertEquals(1, map.firstEntry().getKey());
+	}
+
+	@Test
+	void testLastEntry() {
+		RBTreeMap<Integer, String> map = new RBTreeMap<>();
+		//java.util.TreeMap<Integer, String> map = new java.util.TreeMap<>();
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+
+		assertEquals(35, map.lastEntry().getKey());
+	}
+
+	@Test
+	void testCeilingEntry() {
+		RBTreeMap<Integer, String> map = new RBTreeMap<>();
+		//java.util.TreeMap<Integer, String> map = new java.util.TreeMap<>();
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+
+		assertEquals(12, map.ceilingEntry(11).getKey());
+
+		assertEquals(2, map.ceilingEntry(2).getKey());
+	}
+
+	@Test
+	void testFloorEntry() {
+		RBTreeMap<Integer, String> map = new RBTreeMap<>();
+		//java.util.TreeMap<Integer, String> map = new java.util.TreeMap<>();
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+
+		assertEquals(5, map.floorEntry(11).getKey());
+		assertEquals(5, map.floorEntry(5).getKey());
+	}
+
+	@Test
+	void testLowerEntry() {
+		RBTreeMap<Integer, String> map = new RBTreeMap<>();
+		//java.util.TreeMap<Integer, String> map = new java.util.TreeMap<>();
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+
+		assertEquals(23, map.lowerEntry(24).getKey());
+		assertEquals(26, map.lowerEntry(31).getKey());
+	}
+
+	@Test
+	void testHigherEntry() {
+		RBTreeMap<Integer, String> map = new RBTreeMap<>();
+		//java.util.TreeMap<Integer, String> map = new java.util.TreeMap<>();
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+
+		assertEquals(12, map.higherEntry(11).getKey());
+	}
+
+	@Test
+	void testEntrySet() {
+		RBTreeMap<Integer, String> map = new RBTreeMap<>();
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+
+		assertEquals("[<1, 1>, <2, 2>, <4, 4>, <5, 5>, <12, 12>, <15, 15>, <21, 21>, <23, 23>, <24, 24>, <26, 26>, <33, 33>, <35, 35>]", map.entrySet().toString());
+	}
+
+	@Test
+	void testToString() {
+		RBTreeMap<Integer, String> map = new RBTreeMap<>();
+		//java.util.TreeMap<Integer, String> map = new java.util.TreeMap<>();
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+		assertEquals("", map.toString());
+	}
+
+	@Test
+	void testSubMap() {
+		RBTreeMap<Integer, String> map = new RBTreeMap<>();
+		//java.util.TreeMap<Integer, String> map = new java.util.TreeMap<>();
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+
+		//assertEquals("[12, 15, 21, 23, 24, 26, 33]", map.subMap(12, 34).keySet().toString());
+		assertEquals("[<12, 12>, <15, 15>, <21, 21>, <23, 23>, <24, 24>, <26, 26>, <33, 33>]", map.subMap(12, 34).toString());
+	}
+
+	@Test
+	void testAscendingInsertStaysBalanced() {
+		RBTreeMap<Integer, Integer> map = new RBTreeMap<>();
+		int n = 100000;
+		for(int i = 0; i < n; ++i) {
+			map.put(i, i);
+		}
+		// a red-black tree with n entries has height at most 2 log2(n + 1),
+		// plus one level for the sentinel leaves
+		int bound = (int) (2 * Math.log(n + 1) / Math.log(2)) + 1;
+		assertTrue(map.tree.height(map.root()) <= bound);
+		for(int i = 0; i < n; i += 2) {
+			map.remove(i);
+		}
+		assertTrue(map.tree.height(map.root()) <= bound);
+		assertEquals(n / 2, map.size());
+		assertEquals(1, map.firstEntry().getKey());
+	}
+
+	@Test
+	void testRandomMix() {
+		RBTreeMap<Integer, Integer> map = new RBTreeMap<>();
+		java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+		java.util.Random rnd = new java.util.Random(7);
+
+		for(int i = 0; i < 20000; ++i) {
+			int k = rnd.nextInt(2000);
+			if (rnd.nextBoolean()) assertEquals(expected.put(k, i), map.put(k, i));
+			else assertEquals(expected.remove(k), map.remove(k));
+			assertTrue(map.isBlack(map.root()));
+			assertTrue(map.blackHeight(map.root()) >= 0);
+		}
+		assertEquals(expected.size(), map.size());
+		assertEquals(expected.keySet().toString(), map.keySet().toString());
+	}
+
+}
@@ -0,0 +1,218 @@
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+
+/**
+ * A thread-safe, lock-free priority queue built on a skip list.
+ * <p>
+ * Entries are kept in key order in a lock-free skip list, where a node is
+ * removed by first marking its next references (logical deletion) and then
+ * unlinking it; traversals help by unlinking any marked node they meet.
+ * removeMin walks the bottom level from the front and claims the first node it
+ * manages to mark. Entries with equal keys are ordered by insertion, so every
+ * node has a distinct position.
+ * <p>
+ * This is the strict counterpart of MultiQueue: with no concurrent updates
+ * removeMin always returns a minimal entry. Under concurrency it is
+ * quiescently consistent, so an entry inserted behind a scan already in
+ * progress may be passed over by that scan.
+ */
+public class SkipListPriorityQueue<K, V> extends AbstractPriorityQueue<K, V> {
+    private static final int MAX_LEVEL = 24;
+
+    //---------------- nested Node class ----------------
+    private static final class Node<K, V> extends PQEntry<K, V> {
+        final long seq;                                 // insertion order, breaks ties
+        final AtomicMarkableReference<Node<K, V>>[] next;   // marked once logically deleted
+
+        @SuppressWarnings({"unchecked"})
+        Node(K key, V value, long seq, int topLevel) {
+            super(key, value);
+            this.seq = seq;
+            next = (AtomicMarkableReference<Node<K, V>>[]) new AtomicMarkableReference<?>[topLevel + 1];
+            for (int i = 0; i <= topLevel; ++i) next[i] = new AtomicMarkableReference<>(null, false);
+        }
+
+        int topLevel() {
+            return next.length - 1;
+        }
+    } //----------- end of nested Node class -----------
+
+    private final Node<K, V> head = new Node<>(null, null, Long.MIN_VALUE, MAX_LEVEL);    // sentinel
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Creates an empty priority queue based on the natural ordering of its keys.
+     */
+    public SkipListPriorityQueue() {
+        super();
+    }
+
+    /**
+     * Creates an empty priority queue using the given comparator to order keys.
+     *
+     * @param comp comparator defining the order of keys in the priority queue
+     */
+    public SkipListPriorityQueue(Comparator<K> comp) {
+        super(comp);
+    }
+
+    // private utilities
+
+    /** Returns true if node a belongs before node b. */
+    private boolean less(Node<K, V> a, Node<K, V> b) {
+        int cmp = compare(a, b);
+        return cmp < 0 || (cmp == 0 && a.seq < b.seq);
+    }
+
+    /** Returns a random level, each level up with probability 1/2. */
+    private static int randomLevel() {
+        return Math.min(Integer.numberOfTrailingZeros(ThreadLocalRandom.current().nextInt()), MAX_LEVEL);
+    }
+
+    /**
+     * Fills preds and succs with the nodes on either side of where the target
+     * belongs at every level, unlinking marked nodes on the way.
+     *
+     * @return true if the target is linked at the bottom level
+     */
+    private boolean find(Node<K, V> target, Node<K, V>[] preds, Node<K, V>[] succs) {
+        boolean[] marked = {false};
+        retry:
+        while (true) {
+            Node<K, V> pred = head;
+            for (int level = MAX_LEVEL; level >= 0; --level) {
+                Node<K, V> curr = pred.next[level].getReference();
+                while (curr != null) {
+                    Node<K, V> succ = curr.next[level].get(marked);
+                    if (marked[0]) {                // curr is deleted, so help unlink it
+                        if (!pred.next[level].compareAndSet(curr, succ, false, false)) continue retry;
+                        curr = succ;
+                    } else if (less(curr, target)) {
+                        pred = curr;
+                        curr = succ;
+                    } else {
+                        break;
+                    }
+                }
+                preds[level] = pred;
+                succs[level] = curr;
+            }
+            return succs[0] == target;
+        }
+    }
+
+    /**
+     * Marks the node deleted at every level, returning true if this call marked
+     * the bottom level and so owns the removal.
+     */
+    private boolean claim(Node<K, V> node) {
+        boolean[] marked = {false};
+        for (int level = node.topLevel(); level >= 1; --level) {
+            Node<K, V> succ = node.next[level].get(marked);
+            while (!marked[0]) {
+                node.next[level].compareAndSet(succ, succ, false, true);
+                succ = node.next[level].get(marked);
+            }
+        }
+        while (true) {
+            Node<K, V> succ = node.next[0].get(marked);
+            if (marked[0]) return false;            // another thread got there first
+            if (node.next[0].compareAndSet(succ, succ, false, true)) return true;
+        }
+    }
+
+    @SuppressWarnings({"unchecked"})
+    private Node<K, V>[] newArray() {
+        return (Node<K, V>[]) new Node<?, ?>[MAX_LEVEL + 1];
+    }
+
+    // public methods
+
+    /**
+     * Returns the number of items in the priority queue. The result is exact
+     * when no update is in progress; otherwise it may already count an insert
+     * still being linked, but is never negative.
+     *
+     * @return number of items
+     */
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Returns (but does not remove) an entry with minimal key.
+     *
+     * @return entry having a minimal key (or null if empty)
+     */
+    @Override
+    public Entry<K, V> min() {
+        boolean[] marked = {false};
+        Node<K, V> curr = head.next[0].getReference();
+        while (curr != null) {
+            Node<K, V> succ = curr.next[0].get(marked);
+            if (!marked[0]) return curr;
+            curr = succ;
+        }
+        return null;
+    }
+
+    /**
+     * Inserts a key-value pair and return the entry created.
+     *
+     * @param key   the key of the new entry
+     * @param value the associated value of the new entry
+     * @return the entry storing the new key-value pair
+     * @throws IllegalArgumentException if the key is unacceptable for this queue
+     */
+    @Override
+    public Entry<K, V> insert(K key, V value) throws IllegalArgumentException {
+        checkKey(key);
+        Node<K, V> node = new Node<>(key, value, sequence.getAndIncrement(), randomLevel());
+        Node<K, V>[] preds = newArray(), succs = newArray();
+        size.incrementAndGet();                     // before linking, so removeMin can't drive it below 0
+        while (true) {
+            find(node, preds, succs);
+            for (int level = 0; level <= node.topLevel(); ++level)
+                node.next[level].set(succs[level], false);
+            if (preds[0].next[0].compareAndSet(succs[0], node, false, false)) break;
+        }
+        boolean[] marked = {false};
+        for (int level = 1; level <= node.topLevel(); ++level) {
+            while (true) {
+                Node<K, V> succ = succs[level];
+                Node<K, V> old = node.next[level].get(marked);
+                if (marked[0]) return node;         // already being removed: stop linking
+                if (old != succ && !node.next[level].compareAndSet(old, succ, false, false)) continue;
+                if (preds[level].next[level].compareAndSet(succ, node, false, false)) break;
+                find(node, preds, succs);
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Removes and returns an entry with minimal key.
+     *
+     * @return the removed entry (or null if empty)
+     */
+    @Override
+    public Entry<K, V> removeMin() {
+        boolean[] marked = {false};
+        Node<K, V> curr = head.next[0].getReference();
+        while (curr != null) {
+            Node<K, V> succ = curr.next[0].get(marked);
+            if (!marked[0] && claim(curr)) {
+                size.decrementAndGet();
+                find(curr, newArray(), newArray());     // unlink it from every level
+                return curr;
+            }
+            curr = succ;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,57 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class SkipListPriorityQueueTest {
+
+	@Test
+	void testRemoveMin() {
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5,4};
+		SkipListPriorityQueue<Integer, String> pq = new SkipListPriorityQueue<>();
+
+		assertNull(pq.min());
+		for(Integer i : arr) pq.insert(i, Integer.toString(i));
+
+		assertEquals(13, pq.size());
+		assertEquals(1, pq.min().getKey());
+		StringBuilder sb = new StringBuilder();
+		while (!pq.isEmpty()) sb.append(pq.removeMin().getKey()).append(' ');
+		assertEquals("1 2 4 4 5 12 15 21 23 24 26 33 35 ", sb.toString());
+		assertNull(pq.removeMin());
+	}
+
+	@Test
+	void testConcurrentInsertRemove() throws InterruptedException {
+		SkipListPriorityQueue<Integer, Integer> pq = new SkipListPriorityQueue<>();
+		int threads = 4, perThread = 5000;
+		java.util.concurrent.ConcurrentHashMap<Integer, Boolean> removed = new java.util.concurrent.ConcurrentHashMap<>();
+		Thread[] workers = new Thread[threads];
+		for(int t = 0; t < threads; ++t) {
+			final int base = t * perThread;
+			workers[t] = new Thread(() -> {
+				for(int i = 0; i < perThread; ++i) {
+					pq.insert(base + i, base + i);
+					if (i % 2 == 1) {
+						Entry<Integer, Integer> e = pq.removeMin();
+						assertNull(removed.put(e.getValue(), true));
+					}
+				}
+			});
+			workers[t].start();
+		}
+		for(Thread w : workers) w.join();
+
+		assertEquals(threads * perThread / 2, pq.size());
+		int prev = Integer.MIN_VALUE, count = 0;
+		while (!pq.isEmpty()) {
+			Entry<Integer, Integer> e = pq.removeMin();
+			assertTrue(prev < e.getKey());
+			assertNull(removed.put(e.getValue(), true));
+			prev = e.getKey();
+			count++;
+		}
+		assertEquals(threads * perThread / 2, count);
+		assertEquals(threads * perThread, removed.size());
+	}
+
+}
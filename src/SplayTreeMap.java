@@ -2,9 +2,6 @@ import java.util.Comparator;
 
 public class SplayTreeMap<K,V> extends TreeMap<K,V> {
 
-    protected BalanceableBinaryTree<K, V> tree = new BalanceableBinaryTree<>();
-
-
 	  /** Constructs an empty map using the natural ordering of keys. */
 	  public SplayTreeMap() { super(); }
 
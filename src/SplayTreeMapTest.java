@@ -126,7 +126,14 @@ class SplayTreeMapTest {
 
 	@Test
 	void testEntrySet() {
-		fail("Not yet implemented");
+		SplayTreeMap<Integer, String> map = new SplayTreeMap<>();
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+
+		assertEquals("[<1, 1>, <2, 2>, <4, 4>, <5, 5>, <12, 12>, <15, 15>, <21, 21>, <23, 23>, <24, 24>, <26, 26>, <33, 33>, <35, 35>]", map.entrySet().toString());
 	}
 
 	@Test
@@ -0,0 +1,255 @@
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.Consumer;
+
+/*
+ * Field layout for SpscRingBuffer. HotSpot lays out superclass fields before
+ * subclass fields, so interleaving classes of padding keeps the producer's
+ * index and the consumer's index on different cache lines (no false sharing).
+ */
+
+abstract class SpscPad0 {
+	long p00, p01, p02, p03, p04, p05, p06, p07;
+}
+
+abstract class SpscProducerFields extends SpscPad0 {
+	volatile long tail;  // next slot to be written; only the producer writes it
+	long headCache;      // producer's last view of head, refreshed only when the buffer looks full
+}
+
+abstract class SpscPad1 extends SpscProducerFields {
+	long p10, p11, p12, p13, p14, p15, p16, p17;
+}
+
+abstract class SpscConsumerFields extends SpscPad1 {
+	volatile long head;  // next slot to be read; only the consumer writes it
+	long tailCache;      // consumer's last view of tail, refreshed only when the buffer looks empty
+}
+
+abstract class SpscPad2 extends SpscConsumerFields {
+	long p20, p21, p22, p23, p24, p25, p26, p27;
+}
+
+/**
+ * A bounded, lock-free queue for exactly one producer thread and one consumer
+ * thread, laid out as a ring buffer like ArrayQueue.
+ * <p>
+ * The capacity is a power of two, so a slot is found by masking an ever
+ * increasing index instead of wrapping it. Each index is written by one thread
+ * only, and published with lazySet (a release store) after the slot it covers,
+ * so the other thread, reading the volatile index (an acquire load), always sees
+ * the slot contents. Each side caches the other's index and re-reads it only
+ * when the buffer appears full or empty.
+ * <p>
+ * enqueue and dequeue behave as in ArrayQueue (enqueue throws when full); offer,
+ * poll, offerAll and drain are the non-throwing and batched forms. Calling the
+ * producer methods from more than one thread, or the consumer methods from
+ * more than one thread, is not safe.
+ */
+public class SpscRingBuffer<E> extends SpscPad2 implements Queue<E> {
+	private static final AtomicLongFieldUpdater<SpscProducerFields> TAIL =
+			AtomicLongFieldUpdater.newUpdater(SpscProducerFields.class, "tail");
+	private static final AtomicLongFieldUpdater<SpscConsumerFields> HEAD =
+			AtomicLongFieldUpdater.newUpdater(SpscConsumerFields.class, "head");
+
+	private final Object[] buffer;
+	private final int mask;
+
+	/**
+	 * Creates a ring buffer holding at least the given number of elements,
+	 * rounded up to a power of two.
+	 */
+	public SpscRingBuffer(int capacity) {
+		if (capacity < 1 || capacity > 1 << 30) throw new IllegalArgumentException("Illegal capacity");
+		int cap = Integer.highestOneBit(capacity);
+		if (cap < capacity) cap <<= 1;
+		buffer = new Object[cap];
+		mask = cap - 1;
+	}
+
+	/** Returns the number of slots in the buffer. */
+	public int capacity() {
+		return buffer.length;
+	}
+
+	/**
+	 * Returns the number of elements in the buffer; exact only when neither
+	 * thread is active.
+	 */
+	@Override
+	public int size() {
+		long h = head, t = tail;
+		return (int) Math.max(0, Math.min(t - h, buffer.length));
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return head == tail;
+	}
+
+	// producer side
+
+	/**
+	 * Inserts an element if there is room (producer thread only).
+	 *
+	 * @return true if the element was added, false if the buffer is full
+	 */
+	public boolean offer(E e) {
+		if (e == null) throw new NullPointerException();
+		long t = tail;
+		if (t - headCache == buffer.length) {
+			headCache = head;                  // looks full: refresh the consumer's index
+			if (t - headCache == buffer.length) return false;
+		}
+		buffer[(int) t & mask] = e;
+		TAIL.lazySet(this, t + 1);             // publish the slot
+		return true;
+	}
+
+	@Override
+	public void enqueue(E e) {
+		if (!offer(e)) throw new IllegalStateException("Queue is full");
+	}
+
+	/**
+	 * Inserts as many of the given elements as fit, publishing them with a single
+	 * index update (producer thread only).
+	 *
+	 * @return the number of elements added, from the start of the range
+	 */
+	public int offerAll(E[] items, int offset, int length) {
+		long t = tail;
+		long room = buffer.length - (t - headCache);
+		if (room < length) {
+			headCache = head;
+			room = buffer.length - (t - headCache);
+		}
+		int n = (int) Math.min(room, length);
+		for (int i = 0; i < n; ++i) {
+			if (items[offset + i] == null) throw new NullPointerException();
+			buffer[(int) (t + i) & mask] = items[offset + i];
+		}
+		if (n > 0) TAIL.lazySet(this, t + n);
+		return n;
+	}
+
+	// consumer side
+
+	/**
+	 * Removes and returns the first element (consumer thread only).
+	 *
+	 * @return the element removed (or null if empty)
+	 */
+	@SuppressWarnings({"unchecked"})
+	public E poll() {
+		long h = head;
+		if (h == tailCache) {
+			tailCache = tail;                  // looks empty: refresh the producer's index
+			if (h == tailCache) return null;
+		}
+		int j = (int) h & mask;
+		E e = (E) buffer[j];
+		buffer[j] = null;
+		HEAD.lazySet(this, h + 1);             // hand the slot back to the producer
+		return e;
+	}
+
+	@Override
+	public E dequeue() {
+		return poll();
+	}
+
+	@Override
+	@SuppressWarnings({"unchecked"})
+	public E first() {
+		long h = head;
+		if (h == tail) return null;
+		return (E) buffer[(int) h & mask];
+	}
+
+	/**
+	 * Removes up to max elements, handing each to the consumer, and releases
+	 * their slots with a single index update (consumer thread only).
+	 *
+	 * @return the number of elements removed
+	 */
+	@SuppressWarnings({"unchecked"})
+	public int drain(Consumer<? super E> consumer, int max) {
+		long h = head;
+		long available = tailCache - h;
+		if (available < max) {
+			tailCache = tail;
+			available = tailCache - h;
+		}
+		int n = (int) Math.min(available, max);
+		for (int i = 0; i < n; ++i) {
+			int j = (int) (h + i) & mask;
+			E e = (E) buffer[j];
+			buffer[j] = null;
+			consumer.accept(e);
+		}
+		if (n > 0) HEAD.lazySet(this, h + n);
+		return n;
+	}
+
+	// remainder of class is a simple two-thread benchmark
+
+	/** An ArrayQueue shared by wrapping every call in one lock. */
+	private static class SynchronizedArrayQueue {
+		private final ArrayQueue<Long> q;
+
+		SynchronizedArrayQueue(int capacity) {
+			q = new ArrayQueue<>(capacity);
+		}
+
+		synchronized boolean offer(Long e) {
+			if (q.isFull()) return false;
+			q.enqueue(e);
+			return true;
+		}
+
+		synchronized Long poll() {
+			return q.dequeue();
+		}
+	}
+
+	/**
+	 * Passes n timestamps from a producer thread to a consumer thread, and prints
+	 * throughput and the mean time from offer to poll. Both sides yield when
+	 * they cannot proceed.
+	 */
+	private static void run(String name, int n, java.util.function.Predicate<Long> offer,
+			java.util.function.Supplier<Long> poll) throws InterruptedException {
+		long[] latency = {0};
+		Thread consumer = new Thread(() -> {
+			for (int i = 0; i < n; ) {
+				Long stamp = poll.get();
+				if (stamp == null) {
+					Thread.yield();
+					continue;
+				}
+				if ((i & 1023) == 0) latency[0] += System.nanoTime() - stamp;
+				i++;
+			}
+		});
+		long start = System.nanoTime();
+		consumer.start();
+		for (int i = 0; i < n; ++i) {
+			Long stamp = System.nanoTime();
+			while (!offer.test(stamp)) Thread.yield();
+		}
+		consumer.join();
+		long elapsed = System.nanoTime() - start;
+		System.out.printf("%-26s %7.2f Mops/s  mean latency %10.1f ns%n", name, (double) n / elapsed * 1000,
+				(double) latency[0] / ((n + 1023) / 1024));
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		int n = args.length > 0 ? Integer.parseInt(args[0]) : 20_000_000;
+		for (int round = 0; round < 3; ++round) {
+			SynchronizedArrayQueue locked = new SynchronizedArrayQueue(1024);
+			run("synchronized ArrayQueue", n, locked::offer, locked::poll);
+			SpscRingBuffer<Long> ring = new SpscRingBuffer<>(1024);
+			run("SpscRingBuffer", n, ring::offer, ring::poll);
+		}
+	}
+}
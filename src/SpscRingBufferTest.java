@@ -0,0 +1,61 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+class SpscRingBufferTest {
+
+	@Test
+	void testCapacityAndWrap() {
+		SpscRingBuffer<Integer> q = new SpscRingBuffer<>(3);
+		assertEquals(4, q.capacity());
+		for(int round = 0; round < 10; ++round) {
+			for(int i = 0; i < 4; ++i)
+				assertTrue(q.offer(round * 4 + i));
+			assertFalse(q.offer(-1));
+			assertThrows(IllegalStateException.class, () -> q.enqueue(-1));
+			assertEquals(4, q.size());
+			assertEquals(round * 4, q.first());
+			for(int i = 0; i < 4; ++i)
+				assertEquals(round * 4 + i, q.poll());
+			assertNull(q.poll());
+			assertTrue(q.isEmpty());
+		}
+	}
+
+	@Test
+	void testBatches() {
+		SpscRingBuffer<Integer> q = new SpscRingBuffer<>(8);
+		Integer[] items = new Integer[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+		assertEquals(8, q.offerAll(items, 0, 10));
+		ArrayList<Integer> out = new ArrayList<>();
+		assertEquals(5, q.drain(out::add, 5));
+		assertEquals(2, q.offerAll(items, 8, 2));
+		assertEquals(5, q.drain(out::add, 100));
+		assertEquals("[0, 1, 2, 3, 4, 5, 6, 7, 8, 9]", out.toString());
+	}
+
+	@Test
+	void testProducerConsumer() throws InterruptedException {
+		SpscRingBuffer<Integer> q = new SpscRingBuffer<>(64);
+		int n = 200000;
+		Thread producer = new Thread(() -> {
+			for(int i = 0; i < n; ++i)
+				while (!q.offer(i)) Thread.yield();
+		});
+		producer.start();
+		int expected = 0;
+		while (expected < n) {
+			Integer e = q.poll();
+			if (e == null) {
+				Thread.yield();
+				continue;
+			}
+			assertEquals(expected++, e);
+		}
+		producer.join();
+		assertTrue(q.isEmpty());
+	}
+
+}
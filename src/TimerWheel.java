@@ -0,0 +1,267 @@
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * A hashed hierarchical timing wheel for scheduling large numbers of timeouts,
+ * most of which are expected to be cancelled before they expire.
+ * <p>
+ * Time advances in ticks of a fixed duration. Level 0 of the wheel has one
+ * slot per tick for the next 2^b ticks; each higher level has slots covering
+ * 2^b times as many ticks as the level below. A timeout is hashed into the
+ * slot of the lowest level whose range reaches its deadline, so schedule and
+ * cancel take O(1) time. As the wheel turns, the entries of a higher-level slot
+ * are cascaded down into finer slots, until they reach level 0 and expire.
+ * Each slot is a DoublyLinkedList, and each timeout keeps its position in it.
+ * <p>
+ * Deadlines are rounded up to whole ticks, so a timeout never fires early, but
+ * may fire up to one tick late.
+ */
+public class TimerWheel<T> {
+    //---------------- nested Timeout class ----------------
+
+    /**
+     * A handle for a scheduled task, which can be used to cancel it.
+     */
+    public static class Timeout<T> {
+        private final T task;
+        private final long deadline;                    // in ticks
+        private DoublyLinkedList<Timeout<T>> slot;      // list holding this timeout (null once done)
+        private Position<Timeout<T>> position;          // position within that list
+
+        private Timeout(T task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Returns the scheduled task.
+         *
+         * @return the task
+         */
+        public T getTask() {
+            return task;
+        }
+
+        /**
+         * Tests whether the timeout is still waiting to expire.
+         *
+         * @return true if neither expired nor cancelled
+         */
+        public boolean isPending() {
+            return slot != null;
+        }
+    } //----------- end of nested Timeout class -----------
+
+    private final long tickDuration;    // time units per tick
+    private final int bits;             // log2 of the number of slots per level
+    private final int mask;             // number of slots per level, less one
+    private final DoublyLinkedList<Timeout<T>>[][] wheel;   // wheel[level][slot]
+    private long currentTick;           // the last tick processed
+    private int size = 0;               // number of pending timeouts
+
+    /**
+     * Creates a timer wheel with 4 levels of 256 slots, which reaches 2^32 ticks
+     * ahead; later deadlines are still honoured, by re-hashing at the top level.
+     *
+     * @param tickDuration length of a tick, in the caller's time units
+     * @param now          the current time
+     */
+    public TimerWheel(long tickDuration, long now) {
+        this(tickDuration, now, 8, 4);
+    }
+
+    /**
+     * Creates a timer wheel with the given number of levels of 2^bits slots.
+     *
+     * @param tickDuration length of a tick, in the caller's time units
+     * @param now          the current time
+     * @param bits         log2 of the number of slots per level
+     * @param levels       number of levels
+     */
+    @SuppressWarnings({"unchecked"})
+    public TimerWheel(long tickDuration, long now, int bits, int levels) {
+        if (tickDuration < 1 || bits < 1 || levels < 1 || bits * levels > 62)
+            throw new IllegalArgumentException("Illegal wheel geometry");
+        this.tickDuration = tickDuration;
+        this.bits = bits;
+        this.mask = (1 << bits) - 1;
+        wheel = (DoublyLinkedList<Timeout<T>>[][]) new DoublyLinkedList<?>[levels][1 << bits];
+        for (DoublyLinkedList<Timeout<T>>[] level : wheel)
+            for (int j = 0; j < level.length; ++j) level[j] = new DoublyLinkedList<>();
+        currentTick = now / tickDuration;
+    }
+
+    // private utilities
+
+    /**
+     * Hashes a timeout into the slot of the lowest level whose range covers its
+     * deadline, relative to the current tick. A deadline before the earliest
+     * tick still to be processed is treated as due at that tick.
+     */
+    private void place(Timeout<T> t, long earliest) {
+        long due = Math.max(t.deadline, earliest);
+        long delta = due - currentTick;
+        int level = 0;
+        while (level < wheel.length - 1 && delta >= 1L << (bits * (level + 1))) level++;
+        long reach = (1L << (bits * (level + 1))) - 1;
+        if (delta > reach) due = currentTick + reach;       // beyond the top level: park in range
+        int j = (int) ((due >>> (bits * level)) & mask);
+        t.slot = wheel[level][j];
+        t.position = t.slot.addLastPosition(t);
+    }
+
+    /**
+     * Moves the timeouts of the current slot of the given level down into finer
+     * slots, first cascading the level above if this level has wrapped around.
+     */
+    private void cascade(int level) {
+        int j = (int) ((currentTick >>> (bits * level)) & mask);
+        if (j == 0 && level + 1 < wheel.length) cascade(level + 1);
+        DoublyLinkedList<Timeout<T>> slot = wheel[level][j];
+        while (!slot.isEmpty()) place(slot.removeFirst(), currentTick);    // this tick is next
+    }
+
+    // public methods
+
+    /**
+     * Returns the number of pending timeouts.
+     *
+     * @return number of timeouts neither expired nor cancelled
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Tests whether no timeouts are pending.
+     *
+     * @return true if no timeouts are pending
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Schedules a task to expire at the given time, in O(1) time.
+     *
+     * @param task     the task to be handed to the callback on expiry
+     * @param deadline the time at which the task expires
+     * @return a handle that can be used to cancel the timeout
+     */
+    public Timeout<T> schedule(T task, long deadline) {
+        Timeout<T> t = new Timeout<>(task, Math.floorDiv(deadline + tickDuration - 1, tickDuration));
+        place(t, currentTick + 1);      // the current tick has been processed already
+        size++;
+        return t;
+    }
+
+    /**
+     * Cancels a pending timeout in O(1) time.
+     *
+     * @param t a timeout returned by schedule
+     * @return true if the timeout was pending, false if it had already expired
+     * or been cancelled
+     */
+    public boolean cancel(Timeout<T> t) {
+        if (t.slot == null) return false;
+        t.slot.remove(t.position);
+        t.slot = null;
+        t.position = null;
+        size--;
+        return true;
+    }
+
+    /**
+     * Advances the wheel tick by tick up to the given time, handing the task of
+     * every timeout that expires to the callback. Expired timeouts of a tick are
+     * first moved to a queue, so the callback may schedule and cancel freely.
+     *
+     * @param now      the current time
+     * @param callback receives each expired task, in order of expiry tick
+     * @return the number of tasks handed to the callback
+     */
+    public int advance(long now, Consumer<? super T> callback) {
+        long target = now / tickDuration;
+        int fired = 0;
+        Queue<Timeout<T>> expired = new LinkedQueue<>();
+        while (currentTick < target) {
+            if (size == 0) {                // nothing to expire: jump straight there
+                currentTick = target;
+                break;
+            }
+            currentTick++;
+            int j = (int) (currentTick & mask);
+            if (j == 0 && wheel.length > 1) cascade(1);
+            DoublyLinkedList<Timeout<T>> slot = wheel[0][j];
+            while (!slot.isEmpty()) {
+                Timeout<T> t = slot.removeFirst();
+                if (t.deadline > currentTick) {     // parked beyond a single-level wheel's reach
+                    place(t, currentTick + 1);
+                    continue;
+                }
+                t.slot = null;
+                t.position = null;
+                size--;
+                expired.enqueue(t);
+            }
+            while (!expired.isEmpty()) {
+                callback.accept(expired.dequeue().getTask());
+                fired++;
+            }
+        }
+        return fired;
+    }
+
+    // remainder of class is a simple benchmark
+
+    /**
+     * Schedules n timeouts with deadlines up to a minute ahead (in milliseconds),
+     * cancels 95% of them, and runs time forward until the rest have fired.
+     */
+    private static void timerWheel(long[] deadlines, boolean[] cancelled) {
+        int n = deadlines.length;
+        TimerWheel<Integer> wheel = new TimerWheel<>(1, 0);
+        @SuppressWarnings({"unchecked"})
+        Timeout<Integer>[] handles = (Timeout<Integer>[]) new Timeout<?>[n];
+        long start = System.nanoTime();
+        for (int i = 0; i < n; ++i) handles[i] = wheel.schedule(i, deadlines[i]);
+        for (int i = 0; i < n; ++i) if (cancelled[i]) wheel.cancel(handles[i]);
+        int[] fired = {0};
+        wheel.advance(60_001, task -> fired[0]++);
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("TimerWheel                 %8.1f ms  (%d fired)%n", elapsed / 1e6, fired[0]);
+    }
+
+    private static void adaptableHeap(long[] deadlines, boolean[] cancelled) {
+        int n = deadlines.length;
+        HeapAdaptablePriorityQueue<Long, Integer> heap = new HeapAdaptablePriorityQueue<>();
+        @SuppressWarnings({"unchecked"})
+        Entry<Long, Integer>[] handles = (Entry<Long, Integer>[]) new Entry<?, ?>[n];
+        long start = System.nanoTime();
+        for (int i = 0; i < n; ++i) handles[i] = heap.insert(deadlines[i], i);
+        for (int i = 0; i < n; ++i) if (cancelled[i]) heap.remove(handles[i]);
+        int fired = 0;
+        while (!heap.isEmpty() && heap.min().getKey() <= 60_001) {
+            heap.removeMin();
+            fired++;
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("HeapAdaptablePriorityQueue %8.1f ms  (%d fired)%n", elapsed / 1e6, fired);
+    }
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        Random rnd = new Random(31);
+        long[] deadlines = new long[n];
+        boolean[] cancelled = new boolean[n];
+        for (int i = 0; i < n; ++i) {
+            deadlines[i] = 1 + rnd.nextInt(60_000);
+            cancelled[i] = rnd.nextInt(100) < 95;
+        }
+        System.out.printf("%d timeouts, 95%% cancelled%n", n);
+        for (int round = 0; round < 2; ++round) {
+            timerWheel(deadlines, cancelled);
+            adaptableHeap(deadlines, cancelled);
+        }
+    }
+}
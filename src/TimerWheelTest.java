@@ -0,0 +1,94 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+class TimerWheelTest {
+
+	@Test
+	void testExpiry() {
+		TimerWheel<String> wheel = new TimerWheel<>(10, 0);
+		wheel.schedule("b", 25);
+		wheel.schedule("a", 5);
+		wheel.schedule("c", 30);
+		ArrayList<String> fired = new ArrayList<>();
+
+		assertEquals(1, wheel.advance(19, fired::add));
+		assertEquals("[a]", fired.toString());
+		assertEquals(2, wheel.advance(30, fired::add));
+		assertEquals("[a, b, c]", fired.toString());
+		assertTrue(wheel.isEmpty());
+	}
+
+	@Test
+	void testCancel() {
+		TimerWheel<Integer> wheel = new TimerWheel<>(1, 0);
+		TimerWheel.Timeout<Integer> t1 = wheel.schedule(1, 100);
+		TimerWheel.Timeout<Integer> t2 = wheel.schedule(2, 100);
+		assertTrue(wheel.cancel(t1));
+		assertFalse(wheel.cancel(t1));
+		assertFalse(t1.isPending());
+		assertEquals(1, wheel.size());
+
+		ArrayList<Integer> fired = new ArrayList<>();
+		wheel.advance(100, fired::add);
+		assertEquals("[2]", fired.toString());
+		assertFalse(t2.isPending());
+		assertFalse(wheel.cancel(t2));
+	}
+
+	@Test
+	void testCascadingAgainstHeap() {
+		// small levels, so that deadlines cascade through every level and beyond the top
+		TimerWheel<Long> wheel = new TimerWheel<>(1, 1000, 3, 3);
+		java.util.PriorityQueue<Long> expected = new java.util.PriorityQueue<>();
+		java.util.Random rnd = new java.util.Random(37);
+		for(int i = 0; i < 2000; ++i) {
+			long deadline = 1000 + rnd.nextInt(3000);
+			wheel.schedule(deadline, deadline);
+			expected.add(deadline);
+		}
+		long now = 1000;
+		while (!expected.isEmpty()) {
+			now += 1 + rnd.nextInt(50);
+			ArrayList<Long> fired = new ArrayList<>();
+			wheel.advance(now, fired::add);
+			for(long deadline : fired) {
+				assertTrue(deadline <= now);
+				assertEquals(expected.poll(), deadline);
+			}
+			assertTrue(expected.isEmpty() || expected.peek() > now);
+		}
+		assertTrue(wheel.isEmpty());
+	}
+
+	@Test
+	void testCallbackMayReschedule() {
+		TimerWheel<Integer> wheel = new TimerWheel<>(1, 0);
+		wheel.schedule(3, 10);
+		ArrayList<Integer> fired = new ArrayList<>();
+		for(long now = 0; now <= 40; ++now) {
+			wheel.advance(now, task -> {
+				fired.add(task);
+				if (task > 1) wheel.schedule(task - 1, 10 * (4 - task + 1) + 10);
+			});
+		}
+		assertEquals("[3, 2, 1]", fired.toString());
+	}
+
+	@Test
+	void testSingleLevelBeyondReach() {
+		TimerWheel<String> wheel = new TimerWheel<>(2, 133, 3, 1);
+		wheel.schedule("x", 18294);
+		ArrayList<String> fired = new ArrayList<>();
+		for(long now = 134; now < 18294; now += 2) {
+			wheel.advance(now, fired::add);
+			assertTrue(fired.isEmpty(), "fired early at " + now);
+		}
+		assertEquals(1, wheel.size());
+		assertEquals(1, wheel.advance(18294, fired::add));
+		assertEquals(0, wheel.size());
+	}
+
+}
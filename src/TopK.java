@@ -0,0 +1,186 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * A bounded selector that keeps the k entries with the greatest keys out of
+ * any number of offered candidates, using O(k) space.
+ * <p>
+ * The kept entries sit in a HeapPriorityQueue whose minimum is the worst of
+ * them. A candidate no better than that minimum is rejected with a single
+ * comparison; a better one replaces it with one downheap, in O(log k) time.
+ * "Greater" is defined by the comparator, so passing a reversed comparator
+ * selects the k smallest keys instead.
+ */
+public class TopK<K, V> {
+    private final int k;                        // number of entries to keep
+    private final Comparator<K> comp;           // ordering of the keys
+    private final HeapPriorityQueue<K, V> heap; // kept entries, worst at the top
+
+    /**
+     * Creates a selector for the k greatest keys under their natural ordering.
+     *
+     * @param k number of entries to keep (at least 1)
+     */
+    public TopK(int k) {
+        this(k, new DefaultComparator<K>());
+    }
+
+    /**
+     * Creates a selector for the k greatest keys under the given comparator.
+     *
+     * @param k    number of entries to keep (at least 1)
+     * @param comp comparator defining the order of keys
+     */
+    public TopK(int k, Comparator<K> comp) {
+        if (k < 1) throw new IllegalArgumentException("k must be positive");
+        this.k = k;
+        this.comp = comp;
+        heap = new HeapPriorityQueue<>(comp);
+    }
+
+    /**
+     * Returns the number of entries currently kept (at most k).
+     *
+     * @return number of entries kept
+     */
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * Returns the number of entries this selector keeps once full.
+     *
+     * @return the bound k
+     */
+    public int capacity() {
+        return k;
+    }
+
+    /**
+     * Returns (but does not remove) the worst of the kept entries, which a
+     * candidate must beat once the selector is full.
+     *
+     * @return entry with the least kept key (or null if none are kept)
+     */
+    public Entry<K, V> threshold() {
+        return heap.isEmpty() ? null : heap.min();
+    }
+
+    /**
+     * Offers a candidate, keeping it if fewer than k entries are kept or if its
+     * key is greater than the worst kept key, which it then evicts.
+     *
+     * @param key   the key of the candidate
+     * @param value the associated value
+     * @return true if the candidate was kept
+     */
+    public boolean offer(K key, V value) {
+        if (heap.size() < k) {
+            heap.insert(key, value);
+            return true;
+        }
+        if (comp.compare(key, heap.min().getKey()) <= 0) return false;   // the O(1) rejection
+        heap.replaceMin(key, value);
+        return true;
+    }
+
+    /**
+     * Offers every entry kept by another selector, so that this one then holds
+     * the best k of both. The other selector is left unchanged. Merging a
+     * selector into itself changes nothing.
+     *
+     * @param other the selector to be merged into this one
+     */
+    public void merge(TopK<K, V> other) {
+        if (other == this) return;          // offer would modify the list being walked
+        for (Entry<K, V> e : other.heap.heap) offer(e.getKey(), e.getValue());
+    }
+
+    /**
+     * Removes all kept entries and returns them, best first.
+     *
+     * @return the kept entries in decreasing order of key
+     */
+    public ArrayList<Entry<K, V>> drainSorted() {
+        int n = heap.size();
+        ArrayList<Entry<K, V>> sorted = new ArrayList<>(n);
+        for (int i = 0; i < n; ++i) sorted.add(null);
+        for (int i = n - 1; i >= 0; --i) sorted.set(i, heap.removeMin());   // worst comes out first
+        return sorted;
+    }
+
+    /**
+     * Selects the k greatest keys of the paired arrays using the given number of
+     * threads. Each thread fills its own selector from a slice of the arrays,
+     * and the per-thread selectors are merged at the end.
+     *
+     * @param keys    the candidate keys
+     * @param values  the associated values, paired element-by-element with keys
+     * @param k       number of entries to keep
+     * @param comp    comparator defining the order of keys
+     * @param threads number of threads to use
+     * @return a selector holding the best k entries
+     * @throws IllegalArgumentException if threads is less than 1
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    public static <K, V> TopK<K, V> select(K[] keys, V[] values, int k, Comparator<K> comp, int threads)
+            throws InterruptedException {
+        if (threads < 1) throw new IllegalArgumentException("threads must be at least 1");
+        int n = Math.min(keys.length, values.length);
+        ArrayList<TopK<K, V>> partial = new ArrayList<>(threads);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; ++t) {
+            TopK<K, V> local = new TopK<>(k, comp);
+            partial.add(local);
+            int from = (int) ((long) n * t / threads), to = (int) ((long) n * (t + 1) / threads);
+            workers[t] = new Thread(() -> {
+                for (int i = from; i < to; ++i) local.offer(keys[i], values[i]);
+            });
+            workers[t].start();
+        }
+        for (Thread w : workers) w.join();     // join makes the workers' selectors visible here
+        TopK<K, V> result = partial.get(0);
+        for (int t = 1; t < threads; ++t) result.merge(partial.get(t));
+        return result;
+    }
+
+    // remainder of class is a simple benchmark
+
+    public static void main(String[] args) throws InterruptedException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int k = 100;
+        Random rnd = new Random(17);
+        Double[] scores = new Double[n];
+        Integer[] ids = new Integer[n];
+        for (int i = 0; i < n; ++i) {
+            scores[i] = rnd.nextDouble();
+            ids[i] = i;
+        }
+        Comparator<Double> natural = new DefaultComparator<>();
+        for (int round = 0; round < 3; ++round) {
+            // holding every candidate in one heap ordered best-first
+            long start = System.nanoTime();
+            HeapPriorityQueue<Double, Integer> all = new HeapPriorityQueue<>(natural.reversed());
+            all.insertAll(scores, ids);
+            double best = 0;
+            for (int i = 0; i < k; ++i) best = Math.max(best, all.removeMin().getKey());
+            long full = System.nanoTime() - start;
+            all = null;
+
+            start = System.nanoTime();
+            TopK<Double, Integer> top = new TopK<>(k);
+            for (int i = 0; i < n; ++i) top.offer(scores[i], ids[i]);
+            long single = System.nanoTime() - start;
+
+            int threads = Runtime.getRuntime().availableProcessors();
+            start = System.nanoTime();
+            TopK<Double, Integer> par = select(scores, ids, k, natural, threads);
+            long parallel = System.nanoTime() - start;
+
+            System.out.printf("top %d of %d: full heap %7.1f ms  TopK %7.1f ms  TopK x%d threads %7.1f ms (%.6f %.6f %.6f)%n",
+                    k, n, full / 1e6, single / 1e6, threads, parallel / 1e6, best,
+                    top.drainSorted().get(0).getKey(), par.drainSorted().get(0).getKey());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+class TopKTest {
+
+	@Test
+	void testOffer() {
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+		TopK<Integer, String> top = new TopK<>(3);
+
+		for(Integer i : arr) top.offer(i, Integer.toString(i));
+
+		assertEquals(3, top.size());
+		assertEquals(26, top.threshold().getKey());
+		assertFalse(top.offer(26, "26"));
+		assertTrue(top.offer(30, "30"));
+		assertEquals(30, top.threshold().getKey());
+	}
+
+	@Test
+	void testDrainSorted() {
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+		TopK<Integer, String> top = new TopK<>(5);
+
+		for(Integer i : arr) top.offer(i, Integer.toString(i));
+
+		ArrayList<Entry<Integer, String>> best = top.drainSorted();
+		StringBuilder sb = new StringBuilder();
+		for(Entry<Integer, String> e : best) sb.append(e.getValue()).append(' ');
+		assertEquals("35 33 26 24 23 ", sb.toString());
+		assertEquals(0, top.size());
+	}
+
+	@Test
+	void testComparator() {
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+		TopK<Integer, String> bottom = new TopK<>(3, new DefaultComparator<Integer>().reversed());
+
+		for(Integer i : arr) bottom.offer(i, Integer.toString(i));
+
+		assertEquals(1, bottom.drainSorted().get(0).getKey());
+	}
+
+	@Test
+	void testParallelSelect() throws InterruptedException {
+		int n = 100000;
+		Integer[] keys = new Integer[n];
+		java.util.Random rnd = new java.util.Random(5);
+		for(int i = 0; i < n; ++i) keys[i] = rnd.nextInt();
+		Integer[] sorted = keys.clone();
+		java.util.Arrays.sort(sorted);
+
+		TopK<Integer, Integer> top = TopK.select(keys, keys, 50, new DefaultComparator<>(), 4);
+		ArrayList<Entry<Integer, Integer>> best = top.drainSorted();
+		assertEquals(50, best.size());
+		for(int i = 0; i < 50; ++i) assertEquals(sorted[n - 1 - i], best.get(i).getKey());
+	}
+
+	@Test
+	void testMergeIntoItself() {
+		TopK<Integer, String> top = new TopK<>(3, new DefaultComparator<>());
+		for(int i = 0; i < 5; ++i) top.offer(i, Integer.toString(i));
+		top.merge(top);
+		assertEquals(3, top.size());
+		ArrayList<Entry<Integer, String>> best = top.drainSorted();
+		for(int i = 0; i < 3; ++i) assertEquals(4 - i, best.get(i).getKey());
+	}
+
+	@Test
+	void testSelectRejectsNoThreads() {
+		Integer[] keys = {1, 2, 3};
+		assertThrows(IllegalArgumentException.class, () -> TopK.select(keys, keys, 2, new DefaultComparator<>(), 0));
+	}
+
+}
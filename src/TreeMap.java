@@ -1,5 +1,8 @@
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Random;
 import java.util.stream.Collectors;
 
@@ -9,8 +12,14 @@ import java.util.stream.Collectors;
 
 public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 
-    // We reuse the LinkedBinaryTree class. A limitation here is that we only use the key.
-    protected LinkedBinaryTree<Entry<K, V>> tree = new LinkedBinaryTree<Entry<K, V>>();
+    // We reuse the BalanceableBinaryTree class, so that balanced subclasses can
+    // restructure the very tree the search code below walks.
+    protected BalanceableBinaryTree<K, V> tree = new BalanceableBinaryTree<>();
+
+    /**
+     * Number of structural modifications, for fail-fast iterators.
+     */
+    protected int modCount = 0;
 
     /**
      * Constructs an empty map using the natural ordering of keys.
@@ -85,6 +94,14 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
         return tree.remove(p);
     }
 
+    protected void rotate(Position<Entry<K, V>> p) {
+        tree.rotate(p);
+    }
+
+    protected Position<Entry<K, V>> restructure(Position<Entry<K, V>> x) {
+        return tree.restructure(x);
+    }
+
     /**
      * Returns the position in p's subtree having the given key (or else the
      * terminal leaf).
@@ -94,16 +111,12 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
      * @return Position holding key, or last node reached during search
      */
     private Position<Entry<K, V>> treeSearch(Position<Entry<K, V>> p, K key) {
-        if (isExternal(p)) return p;
-        int cmp = compare(key, p.getElement());
-
-        if (cmp == 0) {
-            return p;
-        } else if (cmp < 0) {
-            return treeSearch(left(p), key);
-        } else {
-            return treeSearch(right(p), key);
+        while (isInternal(p)) {     // descend in a loop, so depth is not limited by the call stack
+            int cmp = compare(key, p.getElement());
+            if (cmp == 0) return p;
+            p = (cmp < 0) ? left(p) : right(p);
         }
+        return p;
     }
 
     /**
@@ -134,6 +147,79 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
         return parent(curr);
     }
 
+    /**
+     * Returns the position holding the least key greater than that of internal
+     * position p (or null if p holds the greatest key).
+     *
+     * @param p an internal Position of the tree
+     * @return Position of the in-order successor, or null
+     */
+    protected Position<Entry<K, V>> successor(Position<Entry<K, V>> p) {
+        if (isInternal(right(p)))
+            return treeMin(right(p));
+        while (!isRoot(p)) {
+            Position<Entry<K, V>> parent = parent(p);
+            if (p == left(parent)) return parent;
+            p = parent;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the position holding the greatest key less than that of internal
+     * position p (or null if p holds the least key).
+     *
+     * @param p an internal Position of the tree
+     * @return Position of the in-order predecessor, or null
+     */
+    protected Position<Entry<K, V>> predecessor(Position<Entry<K, V>> p) {
+        if (isInternal(left(p)))
+            return treeMax(left(p));
+        while (!isRoot(p)) {
+            Position<Entry<K, V>> parent = parent(p);
+            if (p == right(parent)) return parent;
+            p = parent;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the position holding the least key greater than or equal to the
+     * given key (or null if no such key exists). Unlike ceilingEntry, this does
+     * not invoke the access hook.
+     */
+    private Position<Entry<K, V>> ceilingPosition(K key) {
+        Position<Entry<K, V>> p = root(), best = null;
+        while (isInternal(p)) {
+            int cmp = compare(key, p.getElement());
+            if (cmp == 0) return p;
+            if (cmp < 0) {
+                best = p;               // candidate; look for a smaller one on the left
+                p = left(p);
+            } else {
+                p = right(p);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the position holding the greatest key strictly less than the given
+     * key (or null if no such key exists), without invoking the access hook.
+     */
+    private Position<Entry<K, V>> lowerPosition(K key) {
+        Position<Entry<K, V>> p = root(), best = null;
+        while (isInternal(p)) {
+            if (compare(p.getElement(), key) < 0) {
+                best = p;               // candidate; look for a greater one on the right
+                p = right(p);
+            } else {
+                p = left(p);
+            }
+        }
+        return best;
+    }
+
     /**
      * Returns the value associated with the specified key, or null if no such entry
      * exists.
@@ -145,6 +231,7 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
     public V get(K key) throws IllegalArgumentException {
         checkKey(key);
         Position<Entry<K, V>> p = treeSearch(root(), key);
+        rebalanceAccess(p);             // hook for balanced tree subclasses
         if (isExternal(p)) return null;
         return p.getElement().getValue();
     }
@@ -168,16 +255,13 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 
         if (isExternal(p)) {
             expandExternal(p, newNode);
-            try {
-                //rebalanceInsert(p);
-            } catch (Exception e) {}
+            modCount++;
+            rebalanceInsert(p);         // hook for balanced tree subclasses
             return null;
         } else {
             V old = p.getElement().getValue();
             set(p, newNode);
-            try {
-                //rebalanceAccess(p);
-            } catch (Exception e) {}
+            rebalanceAccess(p);         // hook for balanced tree subclasses
             return old;
         }
     }
@@ -196,9 +280,7 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
         Position<Entry<K, V>> p = treeSearch(root(), key);
 
         if (isExternal(p)) {
-            try {
-                //rebalanceAccess(p);
-            } catch (Exception e) {}
+            rebalanceAccess(p);         // hook for balanced tree subclasses
             return null;
         } else {
             V old = p.getElement().getValue();
@@ -213,9 +295,8 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
             Position<Entry<K, V>> bro = sibling(leaf);
             remove(leaf);
             remove(p);
-            try {
-                //rebalanceDelete(bro);
-            } catch (Exception e) {}
+            modCount++;
+            rebalanceDelete(bro);       // hook for balanced tree subclasses
             return old;
         }
     }
@@ -342,80 +423,240 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
         return null;
     }
 
-    // Support for iteration
+    // order-statistic queries, using the subtree sizes kept by the tree
 
     /**
-     * Returns an iterable collection of all key-value entries of the map.
-     *
-     * @return iterable collection of the map's entries
+     * Returns the number of entries in the subtree rooted at p.
      */
-    @Override
-    public Iterable<Entry<K, V>> entrySet() {
-        ArrayList<Entry<K, V>> entries = new ArrayList<>(size());
+    private int entries(Position<Entry<K, V>> p) {
+        return (tree.getSize(p) - 1) / 2;   // only internal nodes have entries
+    }
 
-        for (Position<Entry<K, V>> e : tree.inorder()) {
-            if (isInternal(e)) entries.add(e.getElement());
+    /**
+     * Returns the entry with the k-th smallest key, counting from 0 (or null if k
+     * is not between 0 and size()-1). Runs in time proportional to the tree height.
+     *
+     * @param k the rank of the desired entry
+     * @return entry whose key has exactly k smaller keys in the map (or null)
+     */
+    public Entry<K, V> select(int k) {
+        if (k < 0 || k >= size()) return null;
+        Position<Entry<K, V>> p = root();
+        while (isInternal(p)) {
+            int smaller = entries(left(p));
+            if (k < smaller) {
+                p = left(p);
+            } else if (k == smaller) {
+                return p.getElement();
+            } else {
+                k -= smaller + 1;
+                p = right(p);
+            }
         }
+        return null;
+    }
 
-        return entries;
+    /**
+     * Returns the number of keys in the map strictly less than the given key.
+     * Runs in time proportional to the tree height.
+     *
+     * @param key a target key (need not be present in the map)
+     * @return number of entries with smaller keys
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    public int rank(K key) throws IllegalArgumentException {
+        checkKey(key);
+        int count = 0;
+        Position<Entry<K, V>> p = root();
+        while (isInternal(p)) {
+            if (compare(key, p.getElement()) <= 0) {
+                p = left(p);
+            } else {
+                count += entries(left(p)) + 1;
+                p = right(p);
+            }
+        }
+        return count;
     }
 
     /**
-     * Returns an iterable containing all entries with keys in the range from
+     * Returns the number of entries with keys in the range from
      * <code>fromKey</code> inclusive to <code>toKey</code> exclusive.
      *
-     * @return iterable with keys in desired range
+     * @return number of keys in the range, as would be reported by subMap
      * @throws IllegalArgumentException if <code>fromKey</code> or
      *                                  <code>toKey</code> is not compatible with
      *                                  the map
      */
-    @Override
-    public Iterable<Entry<K, V>> subMap(K fromKey, K toKey) throws IllegalArgumentException {
+    public int countInRange(K fromKey, K toKey) throws IllegalArgumentException {
         checkKey(fromKey);
         checkKey(toKey);
-        ArrayList<Entry<K, V>> submap = new ArrayList<>(size());
+        if (compare(fromKey, toKey) >= 0) return 0;
+        return rank(toKey) - rank(fromKey);
+    }
+
+    // Support for iteration
 
-        if (compare(fromKey, toKey) < 0)
-            subMap(fromKey, toKey, root(), submap);
+    //---------------- nested EntryIterator class ----------------
 
-        return submap;
-    }
+    /**
+     * Walks the tree in order by following successor (or, descending, predecessor)
+     * links from a starting position until it passes the far bound of the range,
+     * so iteration needs no snapshot of the entries and O(1) extra space. Fails
+     * fast if the map is structurally modified other than through the iterator's
+     * own remove().
+     */
+    private class EntryIterator implements Iterator<Entry<K, V>> {
+        private Position<Entry<K, V>> next;           // position holding the next entry
+        private Position<Entry<K, V>> last = null;    // position last returned (null if none)
+        private final K fromKey, toKey;               // bounds of the range (null if unbounded)
+        private final boolean descending;
+        private int expectedModCount = modCount;
+
+        EntryIterator(K fromKey, K toKey, boolean descending) {
+            this.fromKey = fromKey;
+            this.toKey = toKey;
+            this.descending = descending;
+            if (isEmpty())
+                next = null;
+            else if (descending)
+                next = (toKey == null ? treeMax(root()) : lowerPosition(toKey));
+            else
+                next = (fromKey == null ? treeMin(root()) : ceilingPosition(fromKey));
+            checkBound();
+        }
 
-    private void subMap(K fromKey, K toKey, Position<Entry<K, V>> p, ArrayList<Entry<K, V>> submap) {
-        if (!isInternal(p)) return;
+        /** Ends the iteration if the next position lies beyond the far bound. */
+        private void checkBound() {
+            if (next == null) return;
+            if (descending ? fromKey != null && compare(next.getElement(), fromKey) < 0
+                           : toKey != null && compare(next.getElement(), toKey) >= 0)
+                next = null;
+        }
 
-        if (compare(p.getElement(), fromKey) < 0) {
-            subMap(fromKey, toKey, right(p), submap);
-        } else {
-            subMap(fromKey, toKey, left(p), submap);
-            if (compare(p.getElement(), toKey) < 0) {
-                submap.add(p.getElement());
-                subMap(fromKey, toKey, right(p), submap);
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        public Entry<K, V> next() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (next == null) throw new NoSuchElementException("No further entries");
+            last = next;
+            next = descending ? predecessor(next) : successor(next);
+            checkBound();
+            return last.getElement();
+        }
+
+        /**
+         * Removes the entry last returned. A node with two children takes over its
+         * predecessor's entry and the predecessor's node is unlinked instead. That
+         * node is never the next one when ascending; when descending, the next
+         * entry is the one just moved into the node last returned.
+         */
+        public void remove() {
+            if (last == null) throw new IllegalStateException("nothing to remove");
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            boolean twoChildren = isInternal(left(last)) && isInternal(right(last));
+            TreeMap.this.remove(last.getElement().getKey());
+            if (descending && twoChildren && next != null) next = last;
+            expectedModCount = modCount;
+            last = null;
+        }
+    } //----------- end of nested EntryIterator class -----------
+
+    //---------------- nested EntryIterable class ----------------
+    private class EntryIterable implements Iterable<Entry<K, V>> {
+        private final K fromKey, toKey;
+        private final boolean descending;
+
+        EntryIterable(K fromKey, K toKey, boolean descending) {
+            this.fromKey = fromKey;
+            this.toKey = toKey;
+            this.descending = descending;
+        }
+
+        public Iterator<Entry<K, V>> iterator() {
+            return new EntryIterator(fromKey, toKey, descending);
+        }
+
+        public String toString() {
+            StringBuilder sb = new StringBuilder("[");
+            for (Iterator<Entry<K, V>> iter = iterator(); iter.hasNext(); ) {
+                sb.append(iter.next());
+                if (iter.hasNext()) sb.append(", ");
             }
+            return sb.append("]").toString();
         }
+    } //----------- end of nested EntryIterable class -----------
 
+    /**
+     * Returns an iterable collection of all key-value entries of the map. The
+     * entries are produced lazily, in key order.
+     *
+     * @return iterable collection of the map's entries
+     */
+    @Override
+    public Iterable<Entry<K, V>> entrySet() {
+        return new EntryIterable(null, null, false);
     }
 
-    // remainder of class is for debug purposes only
+    /**
+     * Returns an iterable containing all entries with keys in the range from
+     * <code>fromKey</code> inclusive to <code>toKey</code> exclusive. The entries
+     * are produced lazily in increasing key order, starting from the ceiling of
+     * <code>fromKey</code>, so a small range costs O(log n) time to locate and O(1)
+     * extra space however large the map.
+     *
+     * @return iterable with keys in desired range
+     * @throws IllegalArgumentException if <code>fromKey</code> or
+     *                                  <code>toKey</code> is not compatible with
+     *                                  the map
+     */
+    @Override
+    public Iterable<Entry<K, V>> subMap(K fromKey, K toKey) throws IllegalArgumentException {
+        checkKey(fromKey);
+        checkKey(toKey);
+        return new EntryIterable(fromKey, toKey, false);
+    }
 
     /**
-     * Prints textual representation of tree structure (for debug purpose only).
+     * Returns an iterable containing all entries with keys in the range from
+     * <code>fromKey</code> inclusive to <code>toKey</code> exclusive, produced
+     * lazily in decreasing key order, starting from the greatest key below
+     * <code>toKey</code>.
+     *
+     * @return iterable with keys in desired range, in decreasing order
+     * @throws IllegalArgumentException if <code>fromKey</code> or
+     *                                  <code>toKey</code> is not compatible with
+     *                                  the map
      */
-    protected void dump() {
-        dumpRecurse(root(), 0);
+    public Iterable<Entry<K, V>> descendingSubMap(K fromKey, K toKey) throws IllegalArgumentException {
+        checkKey(fromKey);
+        checkKey(toKey);
+        return new EntryIterable(fromKey, toKey, true);
     }
 
+    // remainder of class is for debug purposes only
+
     /**
-     * This exists for debugging only
+     * Prints textual representation of tree structure (for debug purpose only).
      */
-    private void dumpRecurse(Position<Entry<K, V>> p, int depth) {
-        String indent = (depth == 0 ? "" : String.format("%" + (2 * depth) + "s", ""));
-        if (isExternal(p))
-            System.out.println(indent + "leaf");
-        else {
-            System.out.println(indent + p.getElement());
-            dumpRecurse(left(p), depth + 1);
-            dumpRecurse(right(p), depth + 1);
+    protected void dump() {
+        Stack<Position<Entry<K, V>>> positions = new LinkedStack<>();     // preorder, tracking depth
+        Stack<Integer> depths = new LinkedStack<>();
+        positions.push(root());
+        depths.push(0);
+        while (!positions.isEmpty()) {
+            Position<Entry<K, V>> p = positions.pop();
+            int depth = depths.pop();
+            String indent = (depth == 0 ? "" : String.format("%" + (2 * depth) + "s", ""));
+            System.out.println(indent + (isExternal(p) ? "leaf" : p.getElement()));
+            if (isInternal(p)) {
+                positions.push(right(p));           // right first, so left is printed first
+                depths.push(depth + 1);
+                positions.push(left(p));
+                depths.push(depth + 1);
+            }
         }
     }
 
@@ -435,29 +676,149 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
         treeMap.remove(rands.get(1));
 
         System.out.println("tree entries after removal: " + treeMap.entrySet());
+
+        // time and allocation to reach the first 10 entries of a large map
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        TreeMap<Integer, Integer> big = new TreeMap<>();
+        ChainHashMap<Integer, Integer> hashed = new ChainHashMap<>();
+        for (Integer i : rnd.ints(0, Integer.MAX_VALUE).limit(size).boxed().collect(Collectors.toList())) {
+            big.put(i, i);
+            hashed.put(i, i);
+        }
+        for (int round = 0; round < 3; ++round) {
+            firstEntries("TreeMap", big, 10);
+            firstEntries("ChainHashMap", hashed, 10);
+        }
+
+        // small windows over a large map of timestamp-like keys (use -Xmx2g or more)
+        int rangeSize = args.length > 1 ? Integer.parseInt(args[1]) : 10_000_000;
+        big = null;
+        hashed = null;
+        TreeMap<Integer, Integer> series = new AVLTreeMap<>();
+        for (int i = 0; i < rangeSize; ++i)
+            series.put(10 * i, i);
+        for (int round = 0; round < 3; ++round)
+            lookups(series, 1_000_000);
+        for (int round = 0; round < 3; ++round) {
+            rangeQueries("materialized", series, 16, 10_000, true);
+            rangeQueries("lazy subMap", series, 16, 10_000, false);
+        }
+    }
+
+    /**
+     * The recursive form treeSearch used to have, kept to compare against the
+     * loop (for benchmarking only).
+     */
+    private Position<Entry<K, V>> recursiveSearch(Position<Entry<K, V>> p, K key) {
+        if (isExternal(p)) return p;
+        int cmp = compare(key, p.getElement());
+        if (cmp == 0) return p;
+        return recursiveSearch(cmp < 0 ? left(p) : right(p), key);
+    }
+
+    /**
+     * Times random successful lookups by the iterative and the recursive search,
+     * and reports the bytes the lookups allocate (for benchmarking only).
+     */
+    private static void lookups(TreeMap<Integer, Integer> m, int queries) {
+        com.sun.management.ThreadMXBean bean =
+                (com.sun.management.ThreadMXBean) java.lang.management.ManagementFactory.getThreadMXBean();
+        long tid = Thread.currentThread().getId();
+        Random rnd = new Random(7);
+        Integer[] keys = new Integer[queries];      // boxed up front, so only the search allocates
+        for (int q = 0; q < queries; ++q) keys[q] = 10 * rnd.nextInt(m.size());
+        long sum = 0;
+        long bytes = bean.getThreadAllocatedBytes(tid);
+        long start = System.nanoTime();
+        for (Integer k : keys) sum += m.treeSearch(m.root(), k).getElement().getValue();
+        long iterative = System.nanoTime() - start;
+        bytes = bean.getThreadAllocatedBytes(tid) - bytes;
+        start = System.nanoTime();
+        for (Integer k : keys) sum -= m.recursiveSearch(m.root(), k).getElement().getValue();
+        long recursive = System.nanoTime() - start;
+        System.out.printf("lookups in %d entries: iterative %6.1f ns/op, recursive %6.1f ns/op, %.1f bytes/op (%d)%n",
+                m.size(), (double) iterative / queries, (double) recursive / queries, (double) bytes / queries, sum);
+    }
+
+    /**
+     * Reports time and bytes allocated per query for subMap windows of about w
+     * entries at random places in the map (for benchmarking only). The
+     * materialized variant copies each window into a list sized to the whole
+     * map, as subMap used to.
+     */
+    private static void rangeQueries(String name, TreeMap<Integer, Integer> m, int w, int queries,
+                                     boolean materialize) {
+        com.sun.management.ThreadMXBean bean =
+                (com.sun.management.ThreadMXBean) java.lang.management.ManagementFactory.getThreadMXBean();
+        long tid = Thread.currentThread().getId();
+        Random rnd = new Random(42);
+        long sum = 0;
+        long bytes = bean.getThreadAllocatedBytes(tid);
+        long start = System.nanoTime();
+        for (int q = 0; q < queries; ++q) {
+            int from = 10 * rnd.nextInt(m.size());
+            Iterable<Entry<Integer, Integer>> window = m.subMap(from, from + 10 * w);
+            if (materialize) {
+                ArrayList<Entry<Integer, Integer>> copy = new ArrayList<>(m.size());
+                for (Entry<Integer, Integer> e : window) copy.add(e);
+                window = copy;
+            }
+            for (Entry<Integer, Integer> e : window) sum += e.getValue();
+        }
+        long elapsed = System.nanoTime() - start;
+        bytes = bean.getThreadAllocatedBytes(tid) - bytes;
+        System.out.printf("%-13s %d-entry windows of %d: %8.1f us/query, %10d bytes/query (%d)%n", name, w,
+                m.size(), elapsed / 1000.0 / queries, bytes / queries, sum);
     }
 
     /**
-     * Overrides the TreeMap rebalancing hook that is called after an insertion.
+     * Reports time and bytes allocated to take the first k entries (for benchmarking only).
+     */
+    private static void firstEntries(String name, Map<Integer, Integer> m, int k) {
+        com.sun.management.ThreadMXBean bean =
+                (com.sun.management.ThreadMXBean) java.lang.management.ManagementFactory.getThreadMXBean();
+        long tid = Thread.currentThread().getId();
+        long bytes = bean.getThreadAllocatedBytes(tid);
+        long start = System.nanoTime();
+        int seen = 0;
+        for (Iterator<Entry<Integer, Integer>> it = m.entrySet().iterator(); it.hasNext() && seen < k; it.next())
+            seen++;
+        long elapsed = System.nanoTime() - start;
+        bytes = bean.getThreadAllocatedBytes(tid) - bytes;
+        System.out.printf("%-13s first %d entries of %d: %8d ns, %8d bytes allocated%n", name, seen, m.size(),
+                elapsed, bytes);
+    }
+
+    // rebalancing hooks, overridden by balanced tree subclasses
+
+    /**
+     * Rebalances the tree after an insertion of specified position. This version of
+     * the method does not do anything, but it can be overridden by subclasses.
+     *
+     * @param p the position which was recently inserted
      */
     protected void rebalanceInsert(Position<Entry<K, V>> p) {
     }
 
     /**
-     * Overrides the TreeMap rebalancing hook that is called after a deletion.
+     * Rebalances the tree after a child of specified position has been removed.
+     * This version of the method does not do anything, but it can be overridden by
+     * subclasses.
+     *
+     * @param p the position of the sibling of the removed leaf
      */
     protected void rebalanceDelete(Position<Entry<K, V>> p) {
     }
 
     /**
-     * Overrides the TreeMap rebalancing hook that is called after a node access.
+     * Rebalances the tree after an access of specified position. This version of
+     * the method does not do anything, but it can be overridden by subclasses.
+     *
+     * @param p the Position which was recently accessed (possibly a leaf)
      */
     protected void rebalanceAccess(Position<Entry<K, V>> p) {
     }
 
-    protected void rotate(Position<Entry<K, V>> p) {
-    }
-
     @Override
     public String toString() {
         return "";
@@ -1,5 +1,8 @@
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+
 import org.junit.jupiter.api.Test;
 
 class TreeMapTest {
@@ -176,4 +179,96 @@ class TreeMapTest {
 		assertEquals("[<12, 12>, <15, 15>, <21, 21>, <23, 23>, <24, 24>, <26, 26>, <33, 33>]", map.subMap(12, 34).toString());
 	}
 
+	@Test
+	void testDescendingSubMap() {
+		TreeMap<Integer, String> map = new TreeMap<>();
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+
+		assertEquals("[<33, 33>, <26, 26>, <24, 24>, <23, 23>, <21, 21>, <15, 15>, <12, 12>]", map.descendingSubMap(12, 34).toString());
+		assertEquals("[<5, 5>, <4, 4>]", map.descendingSubMap(3, 12).toString());
+		assertEquals("[]", map.descendingSubMap(6, 11).toString());
+		assertEquals("[]", map.subMap(34, 12).toString());
+	}
+
+	@Test
+	void testSubMapIteratorRemove() {
+		AVLTreeMap<Integer, Integer> map = new AVLTreeMap<>();
+		java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+		for(int i = 0; i < 500; ++i) {
+			map.put(i, i);
+			expected.put(i, i);
+		}
+		for(Iterator<Entry<Integer, Integer>> it = map.subMap(100, 300).iterator(); it.hasNext(); ) {
+			if (it.next().getKey() % 3 == 0) it.remove();
+		}
+		for(Iterator<Entry<Integer, Integer>> it = map.descendingSubMap(200, 400).iterator(); it.hasNext(); ) {
+			if (it.next().getKey() % 2 == 0) it.remove();
+		}
+		expected.subMap(100, 300).keySet().removeIf(k -> k % 3 == 0);
+		expected.subMap(200, 400).keySet().removeIf(k -> k % 2 == 0);
+
+		assertEquals(expected.keySet().toString(), map.keySet().toString());
+		assertEquals(expected.size(), map.size());
+	}
+
+	@Test
+	void testEntrySet() {
+		TreeMap<Integer, String> map = new TreeMap<>();
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+
+		assertEquals("[<1, 1>, <2, 2>, <4, 4>, <5, 5>, <12, 12>, <15, 15>, <21, 21>, <23, 23>, <24, 24>, <26, 26>, <33, 33>, <35, 35>]", map.entrySet().toString());
+		assertEquals("[]", new TreeMap<Integer, String>().entrySet().toString());
+	}
+
+	@Test
+	void testIteratorRemove() {
+		TreeMap<Integer, String> map = new TreeMap<>();
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+		for(Iterator<Entry<Integer, String>> it = map.entrySet().iterator(); it.hasNext(); ) {
+			if (it.next().getKey() % 2 == 0) it.remove();
+		}
+
+		assertEquals("[1, 5, 15, 21, 23, 33, 35]", map.keySet().toString());
+		assertEquals(7, map.size());
+	}
+
+	@Test
+	void testIteratorFailFast() {
+		TreeMap<Integer, String> map = new TreeMap<>();
+		map.put(1, "one");
+		map.put(2, "two");
+
+		Iterator<Integer> it = map.keySet().iterator();
+		it.next();
+		map.remove(2);
+		assertThrows(ConcurrentModificationException.class, () -> it.next());
+	}
+
+	@Test
+	void testSortedInsertsIntoUnbalancedTree() {
+		// ascending keys degrade the unbalanced tree into a path as deep as the map
+		TreeMap<Integer, Integer> map = new TreeMap<>();
+		int n = 20000;
+		for(int i = 0; i < n; ++i)
+			map.put(i, i);
+		assertEquals(n, map.tree.height(map.root()));
+		assertEquals(n - 1, map.get(n - 1));
+		assertEquals(null, map.get(n));
+		assertEquals(n - 1, map.floorEntry(n + 5).getKey());
+		assertEquals(n / 2, map.remove(n / 2));
+		assertEquals(n - 1, map.size());
+	}
+
 }
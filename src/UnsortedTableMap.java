@@ -107,6 +107,17 @@ public class UnsortedTableMap<K, V> extends AbstractMap<K, V> {
 		return null;
 	}
 
+	// utilities letting a containing hash table walk this bucket in place
+	/** Returns the entry stored at index i of the table. */
+	Entry<K, V> entryAt(int i) {
+		return table.get(i);
+	}
+
+	/** Removes the entry stored at index i of the table. */
+	void removeAt(int i) {
+		table.remove(i);
+	}
+
 	// ---------------- nested EntryIterator class ----------------
 	private class EntryIterator implements Iterator<Entry<K, V>> {
 		private int j = 0;
@@ -115,14 +126,19 @@ public class UnsortedTableMap<K, V> extends AbstractMap<K, V> {
 			return j < table.size();
 		}
 
+		private boolean removable = false; // true once next() is called, until remove()
+
 		public Entry<K, V> next() {
 			if (j == table.size())
 				throw new NoSuchElementException("No further entries");
+			removable = true;
 			return table.get(j++);
 		}
 
 		public void remove() {
-			throw new UnsupportedOperationException("remove not supported");
+			if (!removable) throw new IllegalStateException("nothing to remove");
+			table.remove(--j);
+			removable = false;
 		}
 	} // ----------- end of nested EntryIterator class -----------
 